@@ -0,0 +1,98 @@
+package psdk.EventEditor.benchmarks;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import psdk.EventEditor.utils.CompatibleImages;
+
+/**
+ * Tile blits from a tileset as returned by ImageIO, compared with the same tileset
+ * converted by {@link CompatibleImages}. Each invocation draws one chunk worth of tiles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BlitBenchmark {
+
+    private static final int TILE_SIZE = 32;
+    private static final int TILESET_COLUMNS = 8;
+    private static final int TILESET_ROWS = 100;
+    private static final int TARGET_TILES = 16;
+
+    @Param({"imageio", "compatible"})
+    public String tileset;
+
+    private BufferedImage[] tiles;
+    private BufferedImage target;
+    private Graphics2D g2d;
+    private int iteration;
+
+    @Setup(Level.Trial)
+    public void createTileset() throws IOException {
+        BufferedImage sheet = decodeSyntheticTileset();
+        if ("compatible".equals(tileset)) {
+            sheet = CompatibleImages.toCompatibleImage(sheet);
+        }
+        tiles = new BufferedImage[TILESET_COLUMNS * TILESET_ROWS];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = sheet.getSubimage((i % TILESET_COLUMNS) * TILE_SIZE, (i / TILESET_COLUMNS) * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+        }
+        target = CompatibleImages.createCompatibleImage(TARGET_TILES * TILE_SIZE, TARGET_TILES * TILE_SIZE, Transparency.OPAQUE);
+        g2d = target.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void disposeGraphics() {
+        g2d.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage drawChunk() {
+        for (int y = 0; y < TARGET_TILES; y++) {
+            for (int x = 0; x < TARGET_TILES; x++) {
+                BufferedImage tile = tiles[(iteration * 31 + y * TARGET_TILES + x) % tiles.length];
+                g2d.drawImage(tile, x * TILE_SIZE, y * TILE_SIZE, TILE_SIZE, TILE_SIZE, null);
+            }
+        }
+        iteration++;
+        return target;
+    }
+
+    /**
+     * Round trips a random translucent sheet through PNG so the image has the type ImageIO gives.
+     */
+    private static BufferedImage decodeSyntheticTileset() throws IOException {
+        BufferedImage sheet = new BufferedImage(TILESET_COLUMNS * TILE_SIZE, TILESET_ROWS * TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = sheet.createGraphics();
+        Random random = new Random(42);
+        for (int i = 0; i < TILESET_COLUMNS * TILESET_ROWS; i++) {
+            g2d.setColor(new Color(random.nextInt(), true));
+            g2d.fillRect((i % TILESET_COLUMNS) * TILE_SIZE, (i / TILESET_COLUMNS) * TILE_SIZE, TILE_SIZE, TILE_SIZE / 2);
+        }
+        g2d.dispose();
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(sheet, "png", png);
+        return ImageIO.read(new ByteArrayInputStream(png.toByteArray()));
+    }
+}
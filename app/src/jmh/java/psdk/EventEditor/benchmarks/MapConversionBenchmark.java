@@ -0,0 +1,38 @@
+package psdk.EventEditor.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import libs.json.JSONObject;
+import psdk.EventEditor.model.Event;
+import psdk.EventEditor.model.EventLoader;
+import psdk.EventEditor.model.GridDataConverter;
+import psdk.EventEditor.model.TileGrid;
+
+/**
+ * Conversions between the map JSON and the model, without any disk access.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MapConversionBenchmark {
+
+    @Benchmark
+    public TileGrid convertJsonGridToTileGrid(MapFixture fixture) {
+        return GridDataConverter.convertJsonGridToTileGrid(fixture.gridInfoJson);
+    }
+
+    @Benchmark
+    public List<Event> loadEventsFromArray(MapFixture fixture) {
+        return EventLoader.loadEventsFromArray(fixture.eventsJson);
+    }
+
+    @Benchmark
+    public JSONObject documentToJson(MapFixture fixture) {
+        return fixture.document.toJSONObject();
+    }
+}
@@ -0,0 +1,80 @@
+package psdk.EventEditor.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import libs.json.JSONArray;
+import libs.json.JSONObject;
+import psdk.EventEditor.model.MapDocument;
+import psdk.EventEditor.model.MapSnapshotStore;
+import psdk.EventEditor.model.MapYmlLoader;
+import psdk.EventEditor.utils.ProjectGenerator;
+
+/**
+ * A throwaway project holding one synthetic map, plus that map already parsed in the
+ * forms the benchmarked steps take as input.
+ */
+@State(Scope.Benchmark)
+public class MapFixture {
+
+    static final int MAP_ID = 1;
+
+    @Param({"20x15", "100x100", "500x500"})
+    public String size;
+
+    @Param({"10", "200", "999"})
+    public int events;
+
+    Path projectRoot;
+    File mapFile;
+    File saveFile;
+    MapSnapshotStore snapshotStore;
+
+    JSONObject mapJson;
+    JSONObject gridInfoJson;
+    JSONArray eventsJson;
+    MapDocument document;
+
+    @Setup(Level.Trial)
+    public void createProject() throws IOException {
+        String[] dimensions = size.split("x");
+        ProjectGenerator.Settings settings = new ProjectGenerator.Settings();
+        settings.maps = 1;
+        settings.width = Integer.parseInt(dimensions[0]);
+        settings.height = Integer.parseInt(dimensions[1]);
+        settings.events = events;
+        ProjectGenerator generator = new ProjectGenerator(settings);
+
+        projectRoot = Files.createTempDirectory("psdk-jmh");
+        generator.generate(projectRoot.toFile());
+        mapFile = projectRoot.resolve("Data").resolve("Map001.rxdata.yml").toFile();
+        saveFile = projectRoot.resolve("Data").resolve("MapSave.rxdata.yml").toFile();
+        snapshotStore = new MapSnapshotStore(projectRoot.toString());
+
+        mapJson = MapYmlLoader.loadMap(mapFile);
+        gridInfoJson = mapJson.getJSONObject("map_data").getJSONObject("grid_info");
+        eventsJson = mapJson.getJSONArray("events");
+
+        // Same settings as the written file, so the document matches it
+        document = generator.createMap(MAP_ID, mapFile);
+        snapshotStore.store(document);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteProject() throws IOException {
+        try (Stream<Path> paths = Files.walk(projectRoot)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package psdk.EventEditor.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+import libs.json.JSONObject;
+import psdk.EventEditor.model.MapDocument;
+import psdk.EventEditor.model.MapYmlLoader;
+import psdk.EventEditor.model.MapYmlStreamReader;
+
+/**
+ * Reading a map from disk, through each of the paths the editor has. The readers are called
+ * directly, the Editor methods wrapping them log to the console.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MapLoadBenchmark {
+
+    @Benchmark
+    public JSONObject loadMapFromJson(MapFixture fixture) throws IOException {
+        return MapYmlLoader.loadMap(fixture.mapFile);
+    }
+
+    @Benchmark
+    public JSONObject loadMapWithEvents(MapFixture fixture, Blackhole blackhole) throws IOException {
+        return MapYmlStreamReader.readMap(fixture.mapFile, blackhole::consume, blackhole::consume);
+    }
+
+    @Benchmark
+    public MapDocument loadMapSnapshot(MapFixture fixture) {
+        return fixture.snapshotStore.load(fixture.mapFile, MapFixture.MAP_ID);
+    }
+}
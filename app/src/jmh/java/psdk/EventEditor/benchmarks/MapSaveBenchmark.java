@@ -0,0 +1,31 @@
+package psdk.EventEditor.benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import psdk.EventEditor.model.MapYmlWriter;
+
+/**
+ * Writing a map back to YAML, with and without the file system. The file written is not
+ * the map file, so that its snapshot stays valid.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MapSaveBenchmark {
+
+    @Benchmark
+    public void saveMap(MapFixture fixture) throws IOException {
+        MapYmlWriter.writeMap(fixture.document, fixture.saveFile);
+    }
+
+    @Benchmark
+    public void writeMapToNullWriter(MapFixture fixture) throws IOException {
+        MapYmlWriter.writeMap(fixture.document, Writer.nullWriter());
+    }
+}
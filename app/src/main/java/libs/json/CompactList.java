@@ -0,0 +1,184 @@
+package libs.json;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/*
+Public Domain.
+ */
+
+/**
+ * The List behind JSONArray. As long as every element is an Integer, as in grid rows and
+ * most command parameters, the elements are kept unboxed in an int array. The first other
+ * element moves the list to a plain Object array for good.
+ */
+final class CompactList extends AbstractList<Object> implements RandomAccess {
+
+    private static final int[] NO_INTS = {};
+    private static final int MIN_GROWTH = 10;
+
+    // Elements while they are all Integers, null afterwards
+    private int[] ints;
+    // Elements once one of them is not an Integer
+    private Object[] objects;
+    private int size;
+
+    CompactList() {
+        this.ints = NO_INTS;
+    }
+
+    CompactList(int initialCapacity) {
+        this.ints = initialCapacity > 0 ? new int[initialCapacity] : NO_INTS;
+    }
+
+    CompactList(CompactList other) {
+        this.size = other.size;
+        if (other.objects == null) {
+            this.ints = Arrays.copyOf(other.ints, other.size);
+        } else {
+            this.objects = Arrays.copyOf(other.objects, other.size);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Object get(int index) {
+        this.checkIndex(index);
+        return this.objects == null ? Integer.valueOf(this.ints[index]) : this.objects[index];
+    }
+
+    /**
+     * Whether the element is an Integer, readable with {@link #getInt(int)} without boxing.
+     */
+    boolean isInt(int index) {
+        this.checkIndex(index);
+        return this.objects == null || this.objects[index] instanceof Integer;
+    }
+
+    int getInt(int index) {
+        this.checkIndex(index);
+        return this.objects == null ? this.ints[index] : ((Integer) this.objects[index]).intValue();
+    }
+
+    @Override
+    public Object set(int index, Object element) {
+        this.checkIndex(index);
+        if (this.objects == null) {
+            if (element instanceof Integer) {
+                int previous = this.ints[index];
+                this.ints[index] = ((Integer) element).intValue();
+                return Integer.valueOf(previous);
+            }
+            this.boxElements(this.ints.length);
+        }
+        Object previous = this.objects[index];
+        this.objects[index] = element;
+        return previous;
+    }
+
+    @Override
+    public boolean add(Object element) {
+        if (this.objects == null && element instanceof Integer) {
+            return this.addInt(((Integer) element).intValue());
+        }
+        this.add(this.size, element);
+        return true;
+    }
+
+    boolean addInt(int value) {
+        if (this.objects != null) {
+            return this.add(Integer.valueOf(value));
+        }
+        this.modCount++;
+        if (this.size == this.ints.length) {
+            this.ints = Arrays.copyOf(this.ints, this.grownCapacity(this.size + 1));
+        }
+        this.ints[this.size++] = value;
+        return true;
+    }
+
+    @Override
+    public void add(int index, Object element) {
+        if (index < 0 || index > this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        this.modCount++;
+        if (this.objects == null && element instanceof Integer) {
+            if (this.size == this.ints.length) {
+                this.ints = Arrays.copyOf(this.ints, this.grownCapacity(this.size + 1));
+            }
+            System.arraycopy(this.ints, index, this.ints, index + 1, this.size - index);
+            this.ints[index] = ((Integer) element).intValue();
+        } else {
+            if (this.objects == null) {
+                this.boxElements(this.grownCapacity(this.size + 1));
+            } else if (this.size == this.objects.length) {
+                this.objects = Arrays.copyOf(this.objects, this.grownCapacity(this.size + 1));
+            }
+            System.arraycopy(this.objects, index, this.objects, index + 1, this.size - index);
+            this.objects[index] = element;
+        }
+        this.size++;
+    }
+
+    @Override
+    public Object remove(int index) {
+        Object previous = this.get(index);
+        this.modCount++;
+        int moved = this.size - index - 1;
+        if (this.objects == null) {
+            System.arraycopy(this.ints, index + 1, this.ints, index, moved);
+        } else {
+            System.arraycopy(this.objects, index + 1, this.objects, index, moved);
+            this.objects[this.size - 1] = null;
+        }
+        this.size--;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        this.modCount++;
+        this.ints = NO_INTS;
+        this.objects = null;
+        this.size = 0;
+    }
+
+    void ensureCapacity(int minCapacity) {
+        if (this.objects == null) {
+            if (minCapacity > this.ints.length) {
+                this.ints = Arrays.copyOf(this.ints, minCapacity);
+            }
+        } else if (minCapacity > this.objects.length) {
+            this.objects = Arrays.copyOf(this.objects, minCapacity);
+        }
+    }
+
+    private int grownCapacity(int minCapacity) {
+        int current = this.objects != null ? this.objects.length : this.ints.length;
+        return Math.max(minCapacity, Math.max(MIN_GROWTH, current + (current >> 1)));
+    }
+
+    /**
+     * Moves the elements to the Object array, for a list that can no longer be all Integers.
+     */
+    private void boxElements(int capacity) {
+        Object[] boxed = new Object[Math.max(capacity, this.size)];
+        for (int i = 0; i < this.size; i++) {
+            boxed[i] = Integer.valueOf(this.ints[i]);
+        }
+        this.objects = boxed;
+        this.ints = null;
+    }
+}
@@ -0,0 +1,253 @@
+package libs.json;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Public Domain.
+ */
+
+/**
+ * The Map behind JSONObject. Most JSON objects have a handful of keys, so up to
+ * MAX_INLINE_SIZE entries are kept in two small arrays and looked up by a linear scan,
+ * which needs no Entry nor table allocation. Larger objects move to a HashMap.
+ * Keys are shared through a pool, the same few key names being repeated in every object.
+ * Like HashMap, no iteration order is guaranteed.
+ */
+final class CompactMap extends AbstractMap<String, Object> {
+
+    static final int MAX_INLINE_SIZE = 8;
+
+    // JSON documents use a small vocabulary of keys, the bound only guards against
+    // documents using data as keys
+    private static final int MAX_POOLED_KEYS = 4096;
+    private static final ConcurrentHashMap<String, String> KEY_POOL = new ConcurrentHashMap<String, String>();
+
+    private String[] keys;
+    private Object[] values;
+    private int size;
+    // Replaces the arrays once the object has more than MAX_INLINE_SIZE entries
+    private HashMap<String, Object> large;
+
+    CompactMap() {
+    }
+
+    CompactMap(int initialCapacity) {
+        if (initialCapacity > MAX_INLINE_SIZE) {
+            this.large = new HashMap<String, Object>(initialCapacity);
+        }
+    }
+
+    /**
+     * Returns the pooled instance of the key, adding it to the pool if there is room.
+     */
+    static String pooledKey(String key) {
+        String pooled = KEY_POOL.get(key);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (KEY_POOL.size() >= MAX_POOLED_KEYS) {
+            return key;
+        }
+        pooled = KEY_POOL.putIfAbsent(key, key);
+        return pooled != null ? pooled : key;
+    }
+
+    private int indexOf(Object key) {
+        for (int i = 0; i < this.size; i++) {
+            String k = this.keys[i];
+            if (k == key || k.equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return this.large != null ? this.large.size() : this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.large != null ? this.large.containsKey(key) : this.indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (this.large != null) {
+            return this.large.get(key);
+        }
+        int index = this.indexOf(key);
+        return index >= 0 ? this.values[index] : null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (this.large != null) {
+            return this.large.put(pooledKey(key), value);
+        }
+        int index = this.indexOf(key);
+        if (index >= 0) {
+            Object previous = this.values[index];
+            this.values[index] = value;
+            return previous;
+        }
+        if (this.size == MAX_INLINE_SIZE) {
+            this.large = new HashMap<String, Object>(MAX_INLINE_SIZE * 4);
+            for (int i = 0; i < this.size; i++) {
+                this.large.put(this.keys[i], this.values[i]);
+            }
+            this.keys = null;
+            this.values = null;
+            this.size = 0;
+            return this.large.put(pooledKey(key), value);
+        }
+        if (this.keys == null) {
+            this.keys = new String[4];
+            this.values = new Object[4];
+        } else if (this.size == this.keys.length) {
+            String[] grownKeys = new String[MAX_INLINE_SIZE];
+            Object[] grownValues = new Object[MAX_INLINE_SIZE];
+            System.arraycopy(this.keys, 0, grownKeys, 0, this.size);
+            System.arraycopy(this.values, 0, grownValues, 0, this.size);
+            this.keys = grownKeys;
+            this.values = grownValues;
+        }
+        this.keys[this.size] = pooledKey(key);
+        this.values[this.size] = value;
+        this.size++;
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (this.large != null) {
+            return this.large.remove(key);
+        }
+        int index = this.indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        Object previous = this.values[index];
+        this.removeAt(index);
+        return previous;
+    }
+
+    private void removeAt(int index) {
+        int moved = this.size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(this.keys, index + 1, this.keys, index, moved);
+            System.arraycopy(this.values, index + 1, this.values, index, moved);
+        }
+        this.size--;
+        this.keys[this.size] = null;
+        this.values[this.size] = null;
+    }
+
+    @Override
+    public void clear() {
+        this.keys = null;
+        this.values = null;
+        this.size = 0;
+        this.large = null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (this.large != null) {
+            return this.large.entrySet();
+        }
+        return new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new InlineIterator();
+            }
+
+            @Override
+            public int size() {
+                return CompactMap.this.size();
+            }
+        };
+    }
+
+    private final class InlineIterator implements Iterator<Map.Entry<String, Object>> {
+        private int next;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return this.next < CompactMap.this.size;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next++;
+            return new InlineEntry(this.last);
+        }
+
+        @Override
+        public void remove() {
+            if (this.last < 0) {
+                throw new IllegalStateException();
+            }
+            CompactMap.this.removeAt(this.last);
+            this.next = this.last;
+            this.last = -1;
+        }
+    }
+
+    private final class InlineEntry implements Map.Entry<String, Object> {
+        private final int index;
+
+        InlineEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return CompactMap.this.keys[this.index];
+        }
+
+        @Override
+        public Object getValue() {
+            return CompactMap.this.values[this.index];
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object previous = CompactMap.this.values[this.index];
+            CompactMap.this.values[this.index] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) other;
+            return this.getKey().equals(entry.getKey())
+                    && (this.getValue() == null ? entry.getValue() == null : this.getValue().equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.getKey().hashCode() ^ (this.getValue() == null ? 0 : this.getValue().hashCode());
+        }
+    }
+}
@@ -65,7 +65,7 @@ public class JSONArray implements Iterable<Object> {
     /**
      * The arrayList where the JSONArray's properties are kept.
      */
-    private final ArrayList<Object> myArrayList;
+    private final CompactList myArrayList;
 
     // strict mode checks after constructor require access to this object
     private JSONTokener jsonTokener;
@@ -77,7 +77,7 @@ public class JSONArray implements Iterable<Object> {
      * Construct an empty JSONArray.
      */
     public JSONArray() {
-        this.myArrayList = new ArrayList<Object>();
+        this.myArrayList = new CompactList();
     }
 
     /**
@@ -240,9 +240,9 @@ public class JSONArray implements Iterable<Object> {
           throw new JSONException("JSONArray has reached recursion depth limit of " + jsonParserConfiguration.getMaxNestingDepth());
         }
         if (collection == null) {
-            this.myArrayList = new ArrayList<Object>();
+            this.myArrayList = new CompactList();
         } else {
-            this.myArrayList = new ArrayList<Object>(collection.size());
+            this.myArrayList = new CompactList(collection.size());
             this.addAll(collection, true, recursionDepth, jsonParserConfiguration);
         }
     }
@@ -269,11 +269,11 @@ public class JSONArray implements Iterable<Object> {
      */
     public JSONArray(JSONArray array) {
         if (array == null) {
-            this.myArrayList = new ArrayList<Object>();
+            this.myArrayList = new CompactList();
         } else {
             // shallow copy directly the internal array lists as any wrapping
             // should have been done already in the original JSONArray
-            this.myArrayList = new ArrayList<Object>(array.myArrayList);
+            this.myArrayList = new CompactList(array.myArrayList);
         }
     }
 
@@ -311,7 +311,7 @@ public class JSONArray implements Iterable<Object> {
             throw new JSONException(
                     "JSONArray initial capacity cannot be negative.");
     	}
-    	this.myArrayList = new ArrayList<Object>(initialCapacity);
+    	this.myArrayList = new CompactList(initialCapacity);
     }
 
     @Override
@@ -504,6 +504,9 @@ public class JSONArray implements Iterable<Object> {
      *             If the key is not found or if the value is not a number.
      */
     public int getInt(int index) throws JSONException {
+        if (index >= 0 && index < this.length() && this.myArrayList.isInt(index)) {
+            return this.myArrayList.getInt(index);
+        }
         final Object object = this.get(index);
         if(object instanceof Number) {
             return ((Number)object).intValue();
@@ -890,6 +893,9 @@ public class JSONArray implements Iterable<Object> {
      * @return The value.
      */
     public int optInt(int index, int defaultValue) {
+        if (index >= 0 && index < this.length() && this.myArrayList.isInt(index)) {
+            return this.myArrayList.getInt(index);
+        }
         final Number val = this.optNumber(index, null);
         if (val == null) {
             return defaultValue;
@@ -1264,7 +1270,8 @@ public class JSONArray implements Iterable<Object> {
      * @return this.
      */
     public JSONArray put(int value) {
-        return this.put(Integer.valueOf(value));
+        this.myArrayList.addInt(value);
+        return this;
     }
 
     /**
@@ -1832,8 +1839,13 @@ public class JSONArray implements Iterable<Object> {
                     }
                     JSONObject.indent(writer, newIndent);
                     try {
-                        JSONObject.writeValue(writer, this.myArrayList.get(i),
-                                indentFactor, newIndent);
+                        if (this.myArrayList.isInt(i)) {
+                            // grid rows and command parameters, written without boxing
+                            writer.write(Integer.toString(this.myArrayList.getInt(i)));
+                        } else {
+                            JSONObject.writeValue(writer, this.myArrayList.get(i),
+                                    indentFactor, newIndent);
+                        }
                     } catch (Exception e) {
                         throw new JSONException("Unable to write JSONArray value at index: " + i, e);
                     }
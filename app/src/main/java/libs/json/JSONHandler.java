@@ -0,0 +1,53 @@
+package libs.json;
+
+/*
+Public Domain.
+ */
+
+/**
+ * Receives the content of a JSON text as it is parsed by {@link JSONStreamParser},
+ * in document order, without any JSONObject or JSONArray being built.
+ * Every method does nothing by default, so a handler only overrides what it needs.
+ */
+public interface JSONHandler {
+
+    /**
+     * Start of an object, followed by key/value pairs and {@link #endObject()}.
+     */
+    default void startObject() {
+    }
+
+    /**
+     * Name of the next value of the current object.
+     *
+     * @param key The key.
+     */
+    default void key(String key) {
+    }
+
+    /**
+     * End of the current object.
+     */
+    default void endObject() {
+    }
+
+    /**
+     * Start of an array, followed by its values and {@link #endArray()}.
+     */
+    default void startArray() {
+    }
+
+    /**
+     * End of the current array.
+     */
+    default void endArray() {
+    }
+
+    /**
+     * A value that is not an object nor an array.
+     *
+     * @param value A Boolean, Number, String, or the JSONObject.NULL object.
+     */
+    default void value(Object value) {
+    }
+}
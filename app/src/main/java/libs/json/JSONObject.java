@@ -4,8 +4,11 @@ package libs.json;
 Public Domain.
 */
 
+import java.io.BufferedWriter;
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
@@ -14,6 +17,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.regex.Pattern;
@@ -130,6 +135,13 @@ public class JSONObject {
      */
     static final Pattern NUMBER_PATTERN = Pattern.compile("-?(?:0|[1-9]\\d*)(?:\\.\\d+)?(?:[eE][+-]?\\d+)?");
 
+    /**
+     * Spaces written by chunks for indentation, instead of one character at a time.
+     */
+    private static final String INDENT_SPACES = "                                                                ";
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
     /**
      * The map where the JSONObject's properties are kept.
      */
@@ -162,13 +174,10 @@ public class JSONObject {
      * Construct an empty JSONObject.
      */
     public JSONObject() {
-        // HashMap is used on purpose to ensure that elements are unordered by
-        // the specification.
-        // JSON tends to be a portable transfer format to allows the container
-        // implementations to rearrange their items for a faster element
-        // retrieval based on associative access.
+        // CompactMap keeps no particular order, as the specification says
+        // elements are unordered, and stores small objects without a hash table.
         // Therefore, an implementation mustn't rely on the order of the item.
-        this.map = new HashMap<String, Object>();
+        this.map = new CompactMap();
     }
 
     /**
@@ -331,9 +340,9 @@ public class JSONObject {
           throw new JSONException("JSONObject has reached recursion depth limit of " + jsonParserConfiguration.getMaxNestingDepth());
         }
         if (m == null) {
-            this.map = new HashMap<String, Object>();
+            this.map = new CompactMap();
         } else {
-            this.map = new HashMap<String, Object>(m.size());
+            this.map = new CompactMap(m.size());
         	for (final Entry<?, ?> e : m.entrySet()) {
         	    if(e.getKey() == null) {
         	        throw new NullPointerException("Null key.");
@@ -537,7 +546,7 @@ public class JSONObject {
      * @param initialCapacity initial capacity of the internal map.
      */
     protected JSONObject(int initialCapacity){
-        this.map = new HashMap<String, Object>(initialCapacity);
+        this.map = new CompactMap(initialCapacity);
     }
 
     /**
@@ -2311,21 +2320,30 @@ public class JSONObject {
         String hhhh;
         int i;
         int len = string.length();
+        // Start of the pending run of characters that need no escaping
+        int plainStart = 0;
 
         w.write('"');
         for (i = 0; i < len; i += 1) {
             b = c;
             c = string.charAt(i);
+            if (c >= ' ' && c < '\u0080') {
+                // ASCII fast path, most strings only hit this test
+                if (c != '\\' && c != '"' && (c != '/' || b != '<')) {
+                    continue;
+                }
+            } else if (c >= '\u00a0' && (c < '\u2000' || c >= '\u2100')) {
+                continue;
+            }
+            if (plainStart < i) {
+                w.write(string, plainStart, i - plainStart);
+            }
+            plainStart = i + 1;
             switch (c) {
             case '\\':
             case '"':
-                w.write('\\');
-                w.write(c);
-                break;
             case '/':
-                if (b == '<') {
-                    w.write('\\');
-                }
+                w.write('\\');
                 w.write(c);
                 break;
             case '\b':
@@ -2344,17 +2362,15 @@ public class JSONObject {
                 w.write("\\r");
                 break;
             default:
-                if (c < ' ' || (c >= '\u0080' && c < '\u00a0')
-                        || (c >= '\u2000' && c < '\u2100')) {
-                    w.write("\\u");
-                    hhhh = Integer.toHexString(c);
-                    w.write("0000", 0, 4 - hhhh.length());
-                    w.write(hhhh);
-                } else {
-                    w.write(c);
-                }
+                w.write("\\u");
+                hhhh = Integer.toHexString(c);
+                w.write("0000", 0, 4 - hhhh.length());
+                w.write(hhhh);
             }
         }
+        if (plainStart < len) {
+            w.write(string, plainStart, len - plainStart);
+        }
         w.write('"');
         return w;
     }
@@ -2822,6 +2838,29 @@ public class JSONObject {
         return this.write(writer, 0, 0);
     }
 
+    /**
+     * Write the contents of the JSONObject as JSON text to a file, encoded in UTF-8.
+     * The text is streamed through a buffer instead of being built as a String first.
+     *
+     * @param file
+     *            The file, created or replaced.
+     * @param indentFactor
+     *            The number of spaces to add to each level of indentation.
+     * @throws IOException If the file cannot be written.
+     * @throws JSONException If a value cannot be serialized.
+     */
+    public void write(File file, int indentFactor) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+            this.write(writer, indentFactor, 0);
+        } catch (JSONException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     @SuppressWarnings("resource")
     static final Writer writeValue(Writer writer, Object value,
             int indentFactor, int indent) throws JSONException, IOException {
@@ -2840,6 +2879,10 @@ public class JSONObject {
             // assuming most values are Strings, so testing it early
             quote(value.toString(), writer);
             return writer;
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            // integral values are always valid JSON numbers
+            writer.write(value.toString());
         } else if (value instanceof Number) {
             // not all Numbers may match actual JSON Numbers. i.e. fractions or Imaginary
             final String numberAsString = numberToString((Number) value);
@@ -2873,8 +2916,10 @@ public class JSONObject {
     }
 
     static final void indent(Writer writer, int indent) throws IOException {
-        for (int i = 0; i < indent; i += 1) {
-            writer.write(' ');
+        while (indent > 0) {
+            int count = Math.min(indent, INDENT_SPACES.length());
+            writer.write(INDENT_SPACES, 0, count);
+            indent -= count;
         }
     }
 
@@ -2916,7 +2961,7 @@ public class JSONObject {
             if (length == 1) {
             	final Entry<String,?> entry = this.entrySet().iterator().next();
                 final String key = entry.getKey();
-                writer.write(quote(key));
+                quote(key, writer);
                 writer.write(':');
                 if (indentFactor > 0) {
                     writer.write(' ');
@@ -2937,7 +2982,7 @@ public class JSONObject {
                     }
                     indent(writer, newIndent);
                     final String key = entry.getKey();
-                    writer.write(quote(key));
+                    quote(key, writer);
                     writer.write(':');
                     if (indentFactor > 0) {
                         writer.write(' ');
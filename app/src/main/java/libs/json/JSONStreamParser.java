@@ -0,0 +1,200 @@
+package libs.json;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/*
+Public Domain.
+ */
+
+/**
+ * Event based parsing of JSON text: values are reported to a {@link JSONHandler} as they
+ * are read, so a large document can be consumed without holding it, nor a DOM of it, in
+ * memory. Nesting is tracked without recursion, so deep documents cannot overflow the stack.
+ * The accepted syntax is the one of the JSONObject and JSONArray constructors, except for
+ * empty array elements ("[1,,2]"), which are rejected.
+ */
+public class JSONStreamParser {
+
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final JSONTokener x;
+
+    /**
+     * Construct a parser reading from a tokener.
+     *
+     * @param x A JSONTokener.
+     */
+    public JSONStreamParser(JSONTokener x) {
+        this.x = x;
+    }
+
+    /**
+     * Construct a parser reading from a Reader. The caller must close the Reader.
+     *
+     * @param reader A reader.
+     */
+    public JSONStreamParser(Reader reader) {
+        this(new JSONTokener(reader));
+    }
+
+    /**
+     * Opens a buffered UTF-8 Reader reading the file through a FileChannel.
+     *
+     * @param file The JSON file.
+     * @return A Reader, to be closed by the caller.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static Reader openReader(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        return new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), READ_BUFFER_SIZE), READ_BUFFER_SIZE);
+    }
+
+    /**
+     * Parses a JSON file, reporting its content to the handler.
+     *
+     * @param file The JSON file.
+     * @param handler The handler.
+     * @throws IOException If the file cannot be read.
+     * @throws JSONException If the file is not valid JSON.
+     */
+    public static void parse(File file, JSONHandler handler) throws IOException {
+        try (Reader reader = openReader(file)) {
+            new JSONStreamParser(reader).parse(handler);
+        }
+    }
+
+    /**
+     * Reads a JSONObject from a file, streaming the text into the object instead of
+     * reading the whole file first.
+     *
+     * @param file The JSON file.
+     * @return The JSONObject.
+     * @throws IOException If the file cannot be read.
+     * @throws JSONException If the file does not hold a JSON object.
+     */
+    public static JSONObject readObject(File file) throws IOException {
+        try (Reader reader = openReader(file)) {
+            return new JSONObject(new JSONTokener(reader));
+        }
+    }
+
+    /**
+     * Reads a JSONArray from a file, streaming the text into the array instead of
+     * reading the whole file first.
+     *
+     * @param file The JSON file.
+     * @return The JSONArray.
+     * @throws IOException If the file cannot be read.
+     * @throws JSONException If the file does not hold a JSON array.
+     */
+    public static JSONArray readArray(File file) throws IOException {
+        try (Reader reader = openReader(file)) {
+            return new JSONArray(new JSONTokener(reader));
+        }
+    }
+
+    /**
+     * Parses the next JSON value, reporting it to the handler, and returns once that
+     * value is complete.
+     *
+     * @param handler The handler.
+     * @throws JSONException If there is a syntax error.
+     */
+    public void parse(JSONHandler handler) throws JSONException {
+        // true for an object, false for an array
+        boolean[] containers = new boolean[16];
+        int depth = 0;
+
+        char c = this.x.nextClean();
+        while (true) {
+            // c is the first character of a value
+            if (c == '{') {
+                handler.startObject();
+                containers = push(containers, depth++, true);
+                c = this.x.nextClean();
+                if (c != '}') {
+                    this.readKey(c, handler);
+                    c = this.x.nextClean();
+                    continue;
+                }
+                depth--;
+                handler.endObject();
+            } else if (c == '[') {
+                handler.startArray();
+                containers = push(containers, depth++, false);
+                c = this.x.nextClean();
+                if (c != ']') {
+                    continue;
+                }
+                depth--;
+                handler.endArray();
+            } else if (c == 0) {
+                throw this.x.syntaxError("Unexpected end of text");
+            } else {
+                handler.value(this.x.nextSimpleValue(c));
+            }
+
+            // The value is complete, close containers until another value starts
+            while (true) {
+                if (depth == 0) {
+                    return;
+                }
+                boolean inObject = containers[depth - 1];
+                c = this.x.nextClean();
+                if (c == ',') {
+                    // A trailing comma is allowed, like in the JSONObject and JSONArray constructors
+                    c = this.x.nextClean();
+                    if (c != (inObject ? '}' : ']')) {
+                        if (inObject) {
+                            this.readKey(c, handler);
+                            c = this.x.nextClean();
+                        }
+                        break;
+                    }
+                }
+                if (inObject && c == '}') {
+                    depth--;
+                    handler.endObject();
+                } else if (!inObject && c == ']') {
+                    depth--;
+                    handler.endArray();
+                } else {
+                    throw this.x.syntaxError(inObject ? "Expected a ',' or '}'" : "Expected a ',' or ']'");
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a key and the ':' following it, c being the first character of the key.
+     */
+    private void readKey(char c, JSONHandler handler) throws JSONException {
+        if (c == 0) {
+            throw this.x.syntaxError("A JSONObject text must end with '}'");
+        }
+        if (c == '{' || c == '[') {
+            throw this.x.syntaxError("A JSON Object can not directly nest another JSON Object or JSON Array.");
+        }
+        handler.key(this.x.nextSimpleValue(c).toString());
+        if (this.x.nextClean() != ':') {
+            throw this.x.syntaxError("Expected a ':' after a key");
+        }
+    }
+
+    private static boolean[] push(boolean[] containers, int depth, boolean isObject) {
+        if (depth == containers.length) {
+            boolean[] grown = new boolean[depth * 2];
+            System.arraycopy(containers, 0, grown, 0, depth);
+            containers = grown;
+        }
+        containers[depth] = isObject;
+        return containers;
+    }
+}
@@ -0,0 +1,322 @@
+package psdk.EventEditor.model;
+
+import java.util.Set;
+
+import libs.json.JSONArray;
+import libs.json.JSONException;
+import libs.json.JSONObject;
+
+/**
+ * Compact, read only storage of the parameters of an event command.
+ * Integers and booleans are kept in an int array, short strings are interned, and the
+ * objects RMXP commands are made of (RPG::AudioFile, RPG::MoveRoute, RPG::MoveCommand) are
+ * stored as small records. Any other value is kept as is, so {@link #toJSONArray()} always
+ * gives back the array the parameters were built from.
+ * Read accessors follow the ones of {@link JSONArray}, so formatters can use either.
+ */
+public final class CommandParameters {
+
+    private static final byte INT = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte STRING = 2;
+    private static final byte AUDIO_FILE = 3;
+    private static final byte MOVE_ROUTE = 4;
+    private static final byte MOVE_COMMAND = 5;
+    private static final byte OTHER = 6;
+
+    // Longer strings are usually dialogue or script lines, unlikely to be shared.
+    private static final int MAX_INTERNED_LENGTH = 64;
+
+    private static final CommandParameters EMPTY = new CommandParameters(new byte[0], null, null);
+
+    private final byte[] kinds;
+    private final int[] ints;
+    private final Object[] values;
+
+    private CommandParameters(byte[] kinds, int[] ints, Object[] values) {
+        this.kinds = kinds;
+        this.ints = ints;
+        this.values = values;
+    }
+
+    /**
+     * RPG::AudioFile, used by the play/change BGM, BGS, ME and SE commands (132, 241, 245, 249, 250...).
+     */
+    public static final class AudioFile {
+        public final String name;
+        public final int volume;
+        public final int pitch;
+
+        AudioFile(String name, int volume, int pitch) {
+            this.name = name;
+            this.volume = volume;
+            this.pitch = pitch;
+        }
+
+        JSONObject toJSONObject() {
+            JSONObject json = new JSONObject();
+            json.put("name", name);
+            json.put("volume", volume);
+            json.put("pitch", pitch);
+            return json;
+        }
+    }
+
+    /**
+     * RPG::MoveCommand, in the route of a 209 and as the parameter of its 509 copies.
+     */
+    public static final class MoveCommand {
+        public final int code;
+        public final CommandParameters parameters;
+
+        MoveCommand(int code, CommandParameters parameters) {
+            this.code = code;
+            this.parameters = parameters;
+        }
+
+        JSONObject toJSONObject() {
+            JSONObject json = new JSONObject();
+            json.put("code", code);
+            json.put("parameters", parameters.toJSONArray());
+            return json;
+        }
+    }
+
+    /**
+     * RPG::MoveRoute, second parameter of Set Move Route (209).
+     */
+    public static final class MoveRoute {
+        public final boolean repeat;
+        public final boolean skippable;
+        private final MoveCommand[] list;
+
+        MoveRoute(boolean repeat, boolean skippable, MoveCommand[] list) {
+            this.repeat = repeat;
+            this.skippable = skippable;
+            this.list = list;
+        }
+
+        public int size() {
+            return list.length;
+        }
+
+        public MoveCommand get(int index) {
+            return list[index];
+        }
+
+        JSONObject toJSONObject() {
+            JSONArray listJson = new JSONArray(list.length);
+            for (MoveCommand command : list) {
+                listJson.put(command.toJSONObject());
+            }
+            JSONObject json = new JSONObject();
+            json.put("repeat", repeat);
+            json.put("skippable", skippable);
+            json.put("list", listJson);
+            return json;
+        }
+    }
+
+    /**
+     * Builds the compact form of a parameter array. The array is not kept, but values that
+     * have no compact form (nested arrays, floats, unknown objects) are shared with it.
+     */
+    public static CommandParameters compact(JSONArray parameters) {
+        if (parameters == null || parameters.length() == 0) {
+            return EMPTY;
+        }
+
+        int length = parameters.length();
+        byte[] kinds = new byte[length];
+        int[] ints = null;
+        Object[] values = null;
+        for (int i = 0; i < length; i++) {
+            Object value = parameters.opt(i);
+            if (value instanceof Integer || value instanceof Boolean) {
+                if (ints == null) {
+                    ints = new int[length];
+                }
+                boolean isInt = value instanceof Integer;
+                kinds[i] = isInt ? INT : BOOLEAN;
+                ints[i] = isInt ? (Integer) value : ((Boolean) value ? 1 : 0);
+                continue;
+            }
+
+            if (values == null) {
+                values = new Object[length];
+            }
+            if (value instanceof String) {
+                kinds[i] = STRING;
+                values[i] = intern((String) value);
+                continue;
+            }
+            Object record = toRecord(value);
+            kinds[i] = record != null ? recordKind(record) : OTHER;
+            values[i] = record != null ? record : value;
+        }
+        return new CommandParameters(kinds, ints, values);
+    }
+
+    public int length() {
+        return kinds.length;
+    }
+
+    public boolean isInt(int index) {
+        return index >= 0 && index < kinds.length && kinds[index] == INT;
+    }
+
+    /**
+     * Value at index as {@link JSONArray#opt(int)} would return it, records being turned back
+     * into JSONObjects. Null when out of bounds.
+     */
+    public Object opt(int index) {
+        if (index < 0 || index >= kinds.length) {
+            return null;
+        }
+        switch (kinds[index]) {
+            case INT: return ints[index];
+            case BOOLEAN: return ints[index] != 0;
+            case AUDIO_FILE: return ((AudioFile) values[index]).toJSONObject();
+            case MOVE_ROUTE: return ((MoveRoute) values[index]).toJSONObject();
+            case MOVE_COMMAND: return ((MoveCommand) values[index]).toJSONObject();
+            default: return values[index];
+        }
+    }
+
+    public Object get(int index) throws JSONException {
+        Object value = opt(index);
+        if (value == null) {
+            throw new JSONException("JSONArray[" + index + "] not found.");
+        }
+        return value;
+    }
+
+    public int getInt(int index) throws JSONException {
+        if (isInt(index)) {
+            return ints[index];
+        }
+        Object value = get(index);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        try {
+            return Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            throw new JSONException("JSONArray[" + index + "] is not a int.");
+        }
+    }
+
+    public int optInt(int index, int defaultValue) {
+        if (isInt(index)) {
+            return ints[index];
+        }
+        try {
+            return getInt(index);
+        } catch (JSONException e) {
+            return defaultValue;
+        }
+    }
+
+    public String getString(int index) throws JSONException {
+        if (index >= 0 && index < kinds.length && kinds[index] == STRING) {
+            return (String) values[index];
+        }
+        throw new JSONException("JSONArray[" + index + "] is not a String.");
+    }
+
+    public String optString(int index, String defaultValue) {
+        Object value = opt(index);
+        return value == null || JSONObject.NULL.equals(value) ? defaultValue : value.toString();
+    }
+
+    public JSONObject getJSONObject(int index) throws JSONException {
+        Object value = get(index);
+        if (value instanceof JSONObject) {
+            return (JSONObject) value;
+        }
+        throw new JSONException("JSONArray[" + index + "] is not a JSONObject.");
+    }
+
+    public JSONArray getJSONArray(int index) throws JSONException {
+        Object value = get(index);
+        if (value instanceof JSONArray) {
+            return (JSONArray) value;
+        }
+        throw new JSONException("JSONArray[" + index + "] is not a JSONArray.");
+    }
+
+    /**
+     * Audio file at index, or null when the parameter is not one.
+     */
+    public AudioFile getAudioFile(int index) {
+        return index >= 0 && index < kinds.length && kinds[index] == AUDIO_FILE ? (AudioFile) values[index] : null;
+    }
+
+    public MoveRoute getMoveRoute(int index) {
+        return index >= 0 && index < kinds.length && kinds[index] == MOVE_ROUTE ? (MoveRoute) values[index] : null;
+    }
+
+    public MoveCommand getMoveCommand(int index) {
+        return index >= 0 && index < kinds.length && kinds[index] == MOVE_COMMAND ? (MoveCommand) values[index] : null;
+    }
+
+    /**
+     * Builds a new parameter array equal to the one this was compacted from.
+     */
+    public JSONArray toJSONArray() {
+        JSONArray array = new JSONArray(kinds.length);
+        for (int i = 0; i < kinds.length; i++) {
+            array.put(opt(i));
+        }
+        return array;
+    }
+
+    @Override
+    public String toString() {
+        return toJSONArray().toString();
+    }
+
+    private static String intern(String value) {
+        return value.length() <= MAX_INTERNED_LENGTH ? value.intern() : value;
+    }
+
+    private static byte recordKind(Object record) {
+        if (record instanceof AudioFile) {
+            return AUDIO_FILE;
+        }
+        return record instanceof MoveRoute ? MOVE_ROUTE : MOVE_COMMAND;
+    }
+
+    /**
+     * Record for a JSONObject holding exactly the fields of a known RPG class with the
+     * expected types, null otherwise so the object is kept untouched.
+     */
+    private static Object toRecord(Object value) {
+        if (!(value instanceof JSONObject)) {
+            return null;
+        }
+        JSONObject json = (JSONObject) value;
+        Set<String> keys = json.keySet();
+        if (keys.size() == 3 && json.opt("name") instanceof String
+                && json.opt("volume") instanceof Integer && json.opt("pitch") instanceof Integer) {
+            return new AudioFile(intern(json.getString("name")), json.getInt("volume"), json.getInt("pitch"));
+        }
+        if (keys.size() == 2 && json.opt("code") instanceof Integer && json.opt("parameters") instanceof JSONArray) {
+            return new MoveCommand(json.getInt("code"), compact(json.getJSONArray("parameters")));
+        }
+        if (keys.size() == 3 && json.opt("repeat") instanceof Boolean
+                && json.opt("skippable") instanceof Boolean && json.opt("list") instanceof JSONArray) {
+            JSONArray listJson = json.getJSONArray("list");
+            MoveCommand[] list = new MoveCommand[listJson.length()];
+            for (int i = 0; i < list.length; i++) {
+                Object command = toRecord(listJson.opt(i));
+                if (!(command instanceof MoveCommand)) {
+                    return null;
+                }
+                list[i] = (MoveCommand) command;
+            }
+            return new MoveRoute(json.getBoolean("repeat"), json.getBoolean("skippable"), list);
+        }
+        return null;
+    }
+}
@@ -1,13 +1,13 @@
 package psdk.EventEditor.model;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
 import libs.json.JSONArray;
 import libs.json.JSONObject;
@@ -17,21 +17,51 @@ public class Editor {
 
     private String rpgMakerProjectRootPath;
     private List<File> ymlFiles;
-    private JSONObject currentMapDataJson;
+    private MapDocument currentMap;
+    private final MapDocumentCache mapCache = new MapDocumentCache();
+    private final MapSnapshotStore snapshotStore;
 
 
     public Editor(String projectRootPath) {
         this.rpgMakerProjectRootPath = projectRootPath;
+        this.snapshotStore = new MapSnapshotStore(projectRootPath);
         ymlFiles = new ArrayList<>();
         loadYmlFiles();
     }
 
-    public void setCurrentMapDataJson(JSONObject mapData) {
-        this.currentMapDataJson = mapData;
+    public void setCurrentMap(MapDocument map) {
+        this.currentMap = map;
     }
 
-    public JSONObject getCurrentMapDataJson() {
-        return this.currentMapDataJson;
+    public MapDocument getCurrentMap() {
+        return this.currentMap;
+    }
+
+    /**
+     * Parsed document of a recently opened map, null when it has to be loaded again.
+     * To call on the EDT, the document may be the one being edited.
+     */
+    public MapDocument getCachedMap(File ymlFile) {
+        return mapCache.get(ymlFile);
+    }
+
+    public void cacheMap(MapDocument map) {
+        mapCache.put(map);
+    }
+
+    public void removeCachedMap(File ymlFile) {
+        mapCache.remove(ymlFile);
+    }
+
+    /**
+     * Document read from the on-disk snapshot of the map, null when the YAML has to be parsed.
+     */
+    public MapDocument loadMapSnapshot(File ymlFile, int mapId) {
+        return snapshotStore.load(ymlFile, mapId);
+    }
+
+    public void storeMapSnapshot(MapDocument map) {
+        snapshotStore.store(map);
     }
 
     private void loadYmlFiles() {
@@ -80,23 +110,9 @@ public class Editor {
     }
 
     public JSONObject loadMapFromJson(File ymlFile) {
-        File jsonOutputFile = new File(rpgMakerProjectRootPath, "temp_map_data.json"); 
-        String pathToPythonScript = "yml_to_json.py"; 
-
         try {
-            ProcessBuilder pb = new ProcessBuilder("python", pathToPythonScript, ymlFile.getAbsolutePath(), jsonOutputFile.getAbsolutePath());
-            pb.inheritIO();
-            Process process = pb.start();
-            int exitCode = process.waitFor();
-
-            if (exitCode != 0) {
-                System.err.println("Error converting YAML to JSON (exit code: " + exitCode + "). Check Python logs.");
-                return null;
-            }
-            System.out.println("YAML to JSON conversion successful via yml_to_json.py.");
-
-            String jsonContent = new String(Files.readAllBytes(jsonOutputFile.toPath()));
-            JSONObject jsonData = new JSONObject(jsonContent);
+            JSONObject jsonData = MapYmlLoader.loadMap(ymlFile);
+            System.out.println("YAML map loaded in-process: " + ymlFile.getName());
 
             int eventCount = 0;
             if (jsonData.has("events")) {
@@ -120,114 +136,69 @@ public class Editor {
                 }
             }
             System.out.println("DEBUG: Number of events detected on the map: " + eventCount);
-            this.currentMapDataJson = jsonData;
 
             return jsonData;
 
-        } catch (IOException | InterruptedException | JSONException e) {
-            System.err.println("Error loading map via Python/JSON: " + e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error loading map YAML: " + e.getMessage());
             e.printStackTrace();
             return null;
-        } finally {
-            /*
-            try {
-                Files.deleteIfExists(jsonOutputFile.toPath());
-                System.out.println("Fichier temporaire " + jsonOutputFile.getName() + " supprimÃ©.");
-            } catch (IOException e) {
-                System.err.println("Erreur lors de la suppression du fichier temporaire : " + e.getMessage());
-            }
-                 */
         }
     }
 
-    public boolean saveMapDataToYml(int mapId, JSONObject mapDataJson) {
-        String tempJsonFilePath = rpgMakerProjectRootPath + File.separator + "temp_map_data_to_save.json";
-        
-        String outputYmlFilePath = rpgMakerProjectRootPath + File.separator + "Data" + File.separator + String.format("Map%03d.rxdata.yml", mapId); 
-
-        String pathToPythonScript = "json_to_yml.py"; 
-
+    /**
+     * Loads a map in a single streaming pass: events are built directly into the model and
+     * passed to eventConsumer, the tiles are decoded and passed to gridConsumer, and the
+     * returned JSON holds the rest of the map without "events" nor "grid_info".
+     * Safe to call from a worker thread, the current map state is left untouched.
+     * A CancellationException thrown by a consumer aborts the load and is rethrown.
+     */
+    public JSONObject loadMapWithEvents(File ymlFile, Consumer<Event> eventConsumer, Consumer<TileGrid> gridConsumer) {
         try {
-            try (FileWriter file = new FileWriter(tempJsonFilePath)) {
-                file.write(mapDataJson.toString(2));
-                System.out.println("Map data temporarily saved to: " + tempJsonFilePath);
-            } catch (IOException e) {
-                System.err.println("Error saving temporary JSON file: " + e.getMessage());
-                return false;
-            }
-
-            ProcessBuilder pb = new ProcessBuilder("python", pathToPythonScript, tempJsonFilePath, outputYmlFilePath);
-            pb.inheritIO();
-            Process p = pb.start();
-            int exitCode = p.waitFor();
+            JSONObject jsonData = MapYmlStreamReader.readMap(ymlFile, eventConsumer, gridConsumer);
+            System.out.println("YAML map streamed in-process: " + ymlFile.getName());
 
-            if (exitCode == 0) {
-                System.out.println("Successfully converted JSON to YAML: " + outputYmlFilePath);
-                return true;
-            } else {
-                System.err.println("Python script exited with error code: " + exitCode);
-                return false;
-            }
+            return jsonData;
 
-        } catch (IOException | InterruptedException e) {
-            System.err.println("Error executing Python script: " + e.getMessage());
-            return false;
-        } finally {
-            /* 
-            try {
-                Files.deleteIfExists(Paths.get(tempJsonFilePath));
-                System.out.println("Temporary JSON file for YAML conversion deleted: " + tempJsonFilePath);
-            } catch (IOException e) {
-                System.err.println("Error deleting temporary JSON file: " + e.getMessage());
-            }
-            */
+        } catch (CancellationException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error loading map YAML: " + e.getMessage());
+            e.printStackTrace();
+            return null;
         }
-        
     }
 
-
-    public boolean exportMapDataToYml(int mapId, JSONObject mapDataJson) {
-        String tempJsonFilePath = rpgMakerProjectRootPath + File.separator + "temp_map_data_to_export.json";
-        
-        String exportYmlFilePath = rpgMakerProjectRootPath + File.separator + "Data" + File.separator + mapId + "_export_test.yml"; 
-
-        String pathToPythonScript = "json_to_yml.py"; 
+    public boolean saveMap(MapDocument map) {
+        File outputYmlFile = new File(rpgMakerProjectRootPath + File.separator + "Data", String.format("Map%03d.rxdata.yml", map.getMapId()));
 
         try {
-            // Ã‰crire le JSON temporaire
-            try (FileWriter file = new FileWriter(tempJsonFilePath)) {
-                file.write(mapDataJson.toString(2));
-                System.out.println("Map data temporarily saved for export to: " + tempJsonFilePath);
-            } catch (IOException e) {
-                System.err.println("Error saving temporary JSON file for export: " + e.getMessage());
-                return false;
+            MapYmlWriter.writeMap(map, outputYmlFile);
+            map.markSaved();
+            if (map.getFile() != null && map.getFile().getAbsoluteFile().equals(outputYmlFile.getAbsoluteFile())) {
+                snapshotStore.store(map);
             }
+            System.out.println("Successfully saved map to YAML: " + outputYmlFile.getPath());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error writing map YAML: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
 
-            // ExÃ©cuter le script Python pour convertir JSON vers YAML
-            ProcessBuilder pb = new ProcessBuilder("python", pathToPythonScript, tempJsonFilePath, exportYmlFilePath);
-            pb.inheritIO();
-            Process p = pb.start();
-            int exitCode = p.waitFor();
 
-            if (exitCode == 0) {
-                System.out.println("Successfully exported JSON to YAML: " + exportYmlFilePath);
-                return true;
-            } else {
-                System.err.println("Python script exited with error code during export: " + exitCode);
-                return false;
-            }
+    public boolean exportMap(MapDocument map) {
+        File exportYmlFile = new File(rpgMakerProjectRootPath + File.separator + "Data", map.getMapId() + "_export_test.yml");
 
-        } catch (IOException | InterruptedException e) {
-            System.err.println("Error executing Python script for export: " + e.getMessage());
+        try {
+            MapYmlWriter.writeMap(map, exportYmlFile);
+            System.out.println("Successfully exported map to YAML: " + exportYmlFile.getPath());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error writing map YAML for export: " + e.getMessage());
+            e.printStackTrace();
             return false;
-        } finally {
-            // Nettoyer le fichier temporaire
-            try {
-                Files.deleteIfExists(new File(tempJsonFilePath).toPath());
-                System.out.println("Temporary JSON file for export deleted: " + tempJsonFilePath);
-            } catch (IOException e) {
-                System.err.println("Error deleting temporary JSON file for export: " + e.getMessage());
-            }
         }
     }
 
@@ -242,15 +213,13 @@ public class Editor {
             return false;
         }
 
-        String rawJsonFilePath = rpgMakerProjectRootPath + File.separator + "debug_raw_json.json";
+        File rawJsonFile = new File(rpgMakerProjectRootPath, "debug_raw_json.json");
 
         try {
-            try (FileWriter file = new FileWriter(rawJsonFilePath)) {
-                file.write(mapDataJson.toString(2)); // Indentation de 2 pour lisibilité
-                System.out.println("Raw JSON data exported to: " + rawJsonFilePath);
-                System.out.println("JSON size: " + mapDataJson.toString().length() + " characters");
-                return true;
-            }
+            mapDataJson.write(rawJsonFile, 2); // Indentation de 2 pour lisibilité
+            System.out.println("Raw JSON data exported to: " + rawJsonFile.getPath());
+            System.out.println("JSON size: " + rawJsonFile.length() + " bytes");
+            return true;
         } catch (IOException e) {
             System.err.println("Error exporting raw JSON file: " + e.getMessage());
             e.printStackTrace();
@@ -6,9 +6,13 @@ import java.util.List;
 public class Event {
     private int id;
     private String name;
+    // Base64 text of the name when the map stored it as !binary, as RMXP does for non ASCII
+    // names, so that it is written back the same way
+    private String binaryName;
     private int x;
     private int y;
     private List<EventPage> pages;
+    private boolean dirty = true; // Cleared once written back to the map JSON
 
     public Event(int id, String name, int x, int y) {
         this.id = id;
@@ -26,6 +30,14 @@ public class Event {
         return name;
     }
 
+    public String getBinaryName() {
+        return binaryName;
+    }
+
+    public void setBinaryName(String binaryName) {
+        this.binaryName = binaryName;
+    }
+
     public int getX() {
         return x;
     }
@@ -40,10 +52,41 @@ public class Event {
 
     public void addPage(EventPage page) {
         this.pages.add(page);
+        this.dirty = true;
     }
 
     public void setPages(List<EventPage> pages) {
         this.pages = pages;
+        this.dirty = true;
+    }
+
+    /**
+     * To call after adding, removing or reordering pages in the list returned by getPages().
+     */
+    public void markDirty() {
+        this.dirty = true;
+    }
+
+    /**
+     * True when the event or one of its pages changed since the last clearDirty().
+     */
+    public boolean isDirty() {
+        if (dirty) {
+            return true;
+        }
+        for (EventPage page : pages) {
+            if (page.isDirty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void clearDirty() {
+        this.dirty = false;
+        for (EventPage page : pages) {
+            page.clearDirty();
+        }
     }
 
     @Override
@@ -6,17 +6,37 @@ public class EventCommand {
     private int code;
     private String name;
     private String indent;
+    // Parameters are kept compact until something asks for the JSONArray to edit it:
+    // from there on the JSONArray is the reference and the compact form is dropped.
     private JSONArray parameters;
+    private CommandParameters compactParameters;
+    // Compact view of the JSONArray for readers, rebuilt after each change.
+    private CommandParameters parametersView;
+
+    // Incremented on every change, the cached display below is only valid for one version.
+    private int version;
+    private String cachedDisplayLine;
+    private int cachedDisplayIndent;
+    private String cachedToolTip;
 
     public EventCommand(int code, String name, String indent, JSONArray parameters) {
         this.code = code;
         this.name = name;
-        this.indent = indent;
+        // Indents are a handful of small numbers, shared instead of one string per command.
+        this.indent = indent != null ? indent.intern() : null;
         this.parameters = parameters;
     }
 
     public EventCommand(int code, String indent, JSONArray parameters) {
-        this(code, "Command " + code, indent, parameters);
+        this(code, null, indent, parameters);
+    }
+
+    /**
+     * Command loaded from a map, holding its parameters in compact form.
+     */
+    public EventCommand(int code, String indent, CommandParameters parameters) {
+        this(code, null, indent, (JSONArray) null);
+        this.compactParameters = parameters;
     }
 
     public int getCode() {
@@ -25,14 +45,16 @@ public class EventCommand {
 
     public void setCode(int code) {
         this.code = code;
+        invalidateDisplayCache();
     }
 
     public String getName() {
-        return name;
+        return name != null ? name : "Command " + code;
     }
 
     public void setName(String name) {
         this.name = name;
+        invalidateDisplayCache();
     }
 
     public String getIndent() {
@@ -40,19 +62,86 @@ public class EventCommand {
     }
 
     public void setIndent(String indent) {
-        this.indent = indent;
+        this.indent = indent != null ? indent.intern() : null;
+        invalidateDisplayCache();
     }
 
+    /**
+     * Parameters as a JSONArray to edit in place, which counts as a change of the command.
+     * Readers use {@link #readParameters()} or {@link #toParametersJsonArray()} instead.
+     */
     public JSONArray getParameters() {
+        if (parameters == null && compactParameters != null) {
+            parameters = compactParameters.toJSONArray();
+            compactParameters = null;
+        }
+        invalidateDisplayCache();
         return parameters;
     }
 
     public void setParameters(JSONArray parameters) {
         this.parameters = parameters;
+        this.compactParameters = null;
+        invalidateDisplayCache();
+    }
+
+    /**
+     * Read only view of the parameters, which does not expand the compact form.
+     */
+    public CommandParameters readParameters() {
+        if (compactParameters != null) {
+            return compactParameters;
+        }
+        if (parametersView == null) {
+            parametersView = CommandParameters.compact(parameters);
+        }
+        return parametersView;
+    }
+
+    /**
+     * Parameters to serialize: the JSONArray when there is one, else a copy built from the
+     * compact form, which is kept.
+     */
+    public JSONArray toParametersJsonArray() {
+        if (parameters != null || compactParameters == null) {
+            return parameters;
+        }
+        return compactParameters.toJSONArray();
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * To call after changing the parameters in place, the setters already do it.
+     */
+    public void invalidateDisplayCache() {
+        version++;
+        parametersView = null;
+        cachedDisplayLine = null;
+        cachedToolTip = null;
+    }
+
+    /**
+     * Display line cached by the command list for this indent level, or null.
+     */
+    public String getCachedDisplayLine(int indentLevel) {
+        return cachedDisplayIndent == indentLevel ? cachedDisplayLine : null;
+    }
+
+    public void setCachedDisplayLine(String displayLine, int indentLevel, String toolTip) {
+        this.cachedDisplayLine = displayLine;
+        this.cachedDisplayIndent = indentLevel;
+        this.cachedToolTip = toolTip;
+    }
+
+    public String getCachedToolTip() {
+        return cachedToolTip;
     }
 
     @Override
     public String toString() {
-        return "EventCommand [code=" + code + ", name='" + name + "', indent='" + indent + "', parameters=" + parameters + "]";
+        return "EventCommand [code=" + code + ", name='" + getName() + "', indent='" + indent + "', parameters=" + toParametersJsonArray() + "]";
     }
 }
\ No newline at end of file
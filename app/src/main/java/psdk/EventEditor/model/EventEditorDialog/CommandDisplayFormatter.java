@@ -3,6 +3,7 @@ package psdk.EventEditor.model.EventEditorDialog;
 import libs.json.JSONArray;
 import libs.json.JSONException;
 import libs.json.JSONObject;
+import psdk.EventEditor.model.CommandParameters;
 import psdk.EventEditor.model.EventCommand;
 import static psdk.EventEditor.model.EventEditorDialog.EventCommandCodes.*;
 
@@ -71,10 +72,33 @@ public class CommandDisplayFormatter {
         }
     }
 
+    /**
+     * Full text of the commands whose display line is truncated, null for the others.
+     */
+    public String getCommandToolTip(EventCommand command) {
+        switch (command.getCode()) {
+            case SHOW_TEXT:
+            case COMMENT:
+            case COMMENT_CONTINUATION:
+            case SCRIPT:
+            case SCRIPT_CONTINUATION:
+                CommandParameters params = command.readParameters();
+                if (params.length() > 0) {
+                    Object text = params.opt(0);
+                    if (text instanceof String && ((String) text).length() > 50) {
+                        return (String) text;
+                    }
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
     // Basic command formatters
     private String formatShowText(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() > 0) {
                 String text = params.getString(0);
                 text = text.replace("\n", " ").replace("\r", "");
@@ -91,7 +115,7 @@ public class CommandDisplayFormatter {
 
     private String formatShowChoices(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() > 0) {
                 JSONArray choices = params.getJSONArray(0);
                 StringBuilder choicesText = new StringBuilder();
@@ -112,7 +136,7 @@ public class CommandDisplayFormatter {
 
     private String formatInputNumber(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 2) {
                 int variableId = params.getInt(0);
                 int digits = params.getInt(1);
@@ -126,7 +150,7 @@ public class CommandDisplayFormatter {
 
     private String formatChangeItems(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 3) {
                 int itemId = params.getInt(0);
                 int operation = params.getInt(1);
@@ -142,7 +166,7 @@ public class CommandDisplayFormatter {
 
     private String formatChangeGold(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 2) {
                 int operation = params.getInt(0);
                 int amount = params.getInt(1);
@@ -157,7 +181,7 @@ public class CommandDisplayFormatter {
 
     private String formatChangeVariables(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 5) {
                 int startId = params.getInt(0);
                 int endId = params.getInt(1);
@@ -184,7 +208,7 @@ public class CommandDisplayFormatter {
 
     private String formatChangeSwitches(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 3) {
                 int startId = params.getInt(0);
                 int endId = params.getInt(1);
@@ -205,7 +229,7 @@ public class CommandDisplayFormatter {
 
     private String formatComment(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() > 0) {
                 String comment = params.getString(0);
                 if (comment.length() > 50) {
@@ -221,7 +245,7 @@ public class CommandDisplayFormatter {
 
     private String formatConditionalBranch(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 1) {
                 int conditionType = params.getInt(0);
                 StringBuilder conditionText = new StringBuilder("Conditional Branch: ");
@@ -268,20 +292,24 @@ public class CommandDisplayFormatter {
 
     private String formatControlSelfSwitch(EventCommand command) {
         try {
-            String selfSwitchChar = command.getParameters().getString(0);
-            int opId = command.getParameters().getInt(1);
+            String selfSwitchChar = command.readParameters().getString(0);
+            int opId = command.readParameters().getInt(1);
             String operation = (opId == 0) ? "ON" : "OFF";
             return "Control Self Switch: " + selfSwitchChar + " = " + operation;
         } catch (JSONException | IndexOutOfBoundsException e) {
             System.err.println("Error parsing parameters for Control Self Switch (123): " + e.getMessage());
-            return "Control Self Switch (Error: " + command.getParameters().toString() + ")";
+            return "Control Self Switch (Error: " + command.readParameters().toString() + ")";
         }
     }
 
     // Audio/Visual formatters
     private String formatChangeBattleBGM(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
+            CommandParameters.AudioFile audioFile = params.getAudioFile(0);
+            if (audioFile != null) {
+                return "Change Battle BGM: \"" + audioFile.name + "\", " + audioFile.volume + ", " + audioFile.pitch;
+            }
             if (params.length() > 0) {
                 JSONObject bgm = params.getJSONObject(0);
                 String name = bgm.has("name") ? bgm.getString("name") : "";
@@ -309,7 +337,7 @@ public class CommandDisplayFormatter {
 
     private String formatFadeOutBGM(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 1) {
                 int seconds = params.getInt(0);
                 return "Fade Out BGM: " + seconds + "s";
@@ -322,7 +350,11 @@ public class CommandDisplayFormatter {
 
     private String formatAudioCommand(EventCommand command, String commandName) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
+            CommandParameters.AudioFile audioFile = params.getAudioFile(0);
+            if (audioFile != null) {
+                return commandName + ": \"" + audioFile.name + "\", " + audioFile.volume + ", " + audioFile.pitch;
+            }
             if (params.length() > 0) {
                 JSONObject audio = params.getJSONObject(0);
                 String name = audio.has("name") ? audio.getString("name") : "";
@@ -338,7 +370,7 @@ public class CommandDisplayFormatter {
 
     private String formatFadeOutBGS(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 1) {
                 int seconds = params.getInt(0);
                 return "Fade Out BGS: " + seconds + "s";
@@ -351,7 +383,7 @@ public class CommandDisplayFormatter {
 
     private String formatShowPicture(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 2) {
                 int pictureId = params.getInt(0);
                 String pictureName = params.getString(1);
@@ -365,7 +397,7 @@ public class CommandDisplayFormatter {
 
     private String formatErasePicture(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 1) {
                 int pictureId = params.getInt(0);
                 return "Erase Picture: #" + pictureId;
@@ -379,7 +411,7 @@ public class CommandDisplayFormatter {
     // Map/Player formatters
     private String formatTransferPlayer(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 4) {
                 int mapId = params.getInt(1);
                 int x = params.getInt(2);
@@ -394,7 +426,7 @@ public class CommandDisplayFormatter {
 
     private String formatSetEventLocation(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 3) {
                 int eventId = params.getInt(0);
                 int x = params.getInt(1);
@@ -410,7 +442,7 @@ public class CommandDisplayFormatter {
 
     private String formatScrollMap(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 3) {
                 int direction = params.getInt(0);
                 int distance = params.getInt(1);
@@ -426,7 +458,7 @@ public class CommandDisplayFormatter {
     
     private String formatScreenFlash(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             JSONObject flashData = (JSONObject) params.get(0);
             int duration = params.getInt(1);
             
@@ -446,7 +478,7 @@ public class CommandDisplayFormatter {
     private String formatSetMovementRoute(EventCommand command) {
         StringBuilder routeDisplayName = new StringBuilder("Set Move Route: ");
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             int targetId = params.getInt(0);
             if (targetId == -1) {
                 routeDisplayName.append("Player");
@@ -457,14 +489,14 @@ public class CommandDisplayFormatter {
             }
         } catch (JSONException | IndexOutOfBoundsException e) {
             System.err.println("Error parsing parameters for Set Movement Route (209): " + e.getMessage());
-            routeDisplayName.append(" (Error: ").append(command.getParameters().toString()).append(")");
+            routeDisplayName.append(" (Error: ").append(command.readParameters().toString()).append(")");
         }
         return routeDisplayName.toString();
     }
 
     private String formatChangeMapSettings(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             
             if (params.length() >= 8) {
                 String fogName = params.getString(1);
@@ -480,7 +512,7 @@ public class CommandDisplayFormatter {
 
     private String formatScreenShake(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 3) {
                 int power = params.getInt(0);
                 int speed = params.getInt(1);
@@ -490,12 +522,12 @@ public class CommandDisplayFormatter {
         } catch (JSONException e) {
             // Fall back to showing parameters
         }
-        return "Screen Shake" + (command.getParameters().length() > 0 ? " (" + command.getParameters().toString() + ")" : "");
+        return "Screen Shake" + (command.readParameters().length() > 0 ? " (" + command.readParameters().toString() + ")" : "");
     }
 
     private String formatScript(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() > 0) {
                 String script = params.getString(0);
                 if (script.length() > 50) {
@@ -512,7 +544,7 @@ public class CommandDisplayFormatter {
     // Continuation command formatters
     private String formatWhenChoice(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() >= 2) {
                 int choiceIndex = params.getInt(0);
                 String choiceText = params.getString(1);
@@ -526,7 +558,7 @@ public class CommandDisplayFormatter {
 
     private String formatCommentContinuation(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() > 0) {
                 String comment = params.getString(0);
                 if (comment.length() > 50) {
@@ -542,7 +574,7 @@ public class CommandDisplayFormatter {
 
     private String formatScriptContinuation(EventCommand command) {
         try {
-            JSONArray params = command.getParameters();
+            CommandParameters params = command.readParameters();
             if (params.length() > 0) {
                 String script = params.getString(0);
                 if (script.length() > 50) {
@@ -559,7 +591,7 @@ public class CommandDisplayFormatter {
     // Movement command formatter (kept large due to complexity)
     private String formatMovementCommand(EventCommand command) {
         // Check if this is a dummy command from MoveCommandQuickInsertDialog
-        if (command.getParameters().length() == 0) {
+        if (command.readParameters().length() == 0) {
             try {
                 Integer.parseInt(command.getIndent());
                 // Regular 509 with empty params, fall through to error handling
@@ -570,12 +602,12 @@ public class CommandDisplayFormatter {
         }
 
         try {
-            JSONObject moveObject = command.getParameters().getJSONObject(0);
+            JSONObject moveObject = command.readParameters().getJSONObject(0);
             int moveCode = moveObject.getInt("code"); 
             return formatMovementByCode(moveCode, moveObject);
         } catch (JSONException | IndexOutOfBoundsException e) {
             System.err.println("Error parsing parameters for Movement Command (509): " + e.getMessage());
-            return "Movement Command (509) (Error: " + command.getParameters().toString() + ")";
+            return "Movement Command (509) (Error: " + command.readParameters().toString() + ")";
         }
     }
 
@@ -720,7 +752,7 @@ public class CommandDisplayFormatter {
 
     private String formatUnknownCommand(EventCommand command) {
         return "Code " + command.getCode() + 
-               (command.getParameters().length() > 0 ? " (" + command.getParameters().toString() + ")" : "");
+               (command.readParameters().length() > 0 ? " (" + command.readParameters().toString() + ")" : "");
     }
 
     // Utility methods
@@ -21,7 +21,6 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
-import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
 import javax.swing.DefaultListModel;
 import javax.swing.JButton;
@@ -38,6 +37,7 @@ import javax.swing.border.EmptyBorder;
 
 import psdk.EventEditor.ConfigManager;
 import psdk.EventEditor.Core;
+import psdk.EventEditor.utils.CompatibleImages;
 import psdk.EventEditor.utils.DialogKeyBindingUtils;
 
 
@@ -459,7 +459,7 @@ public class ChangeGraphicDialog extends JDialog implements DialogKeyBindingUtil
             File imageFile = new File(getGraphicsCharactersPath(), graphicName + ".png"); // Use the new method
             System.out.println("DEBUG: Loading image: " + imageFile.getAbsolutePath());
             if (imageFile.exists()) {
-                BufferedImage image = ImageIO.read(imageFile);
+                BufferedImage image = CompatibleImages.read(imageFile);
                 System.out.println("DEBUG: Image loaded successfully.");
                 return image;
             } else {
@@ -35,7 +35,7 @@ public class CommentEditorDialog extends JDialog implements DialogKeyBindingUtil
                 EventCommand copy = new EventCommand(
                     cmd.getCode(),
                     cmd.getIndent(),
-                    cmd.getParameters() != null ? new JSONArray(cmd.getParameters().toString()) : new JSONArray()
+                    cmd.toParametersJsonArray() != null ? new JSONArray(cmd.toParametersJsonArray().toString()) : new JSONArray()
                 );
                 this.commentCommands.add(copy);
             } catch (JSONException e) {
@@ -12,6 +12,7 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -69,6 +70,8 @@ public class SetMoveRouteEditorDialog extends JDialog implements
 
     private List<EventCommand> fullCommandList;
     private int setMoveRouteIndex;
+    // 509 commands to put after the Set Move Route, built on save
+    private List<EventCommand> modifiedMoveCommands = new ArrayList<>();
     private boolean commandModified = false;
     private Map<Integer, String> eventTargetMap;
 
@@ -99,7 +102,7 @@ public class SetMoveRouteEditorDialog extends JDialog implements
 
     private void initializeFromCommand(EventCommand setMoveRouteCommand) {
         try {
-            this.modified209Parameters = new JSONArray(setMoveRouteCommand.getParameters().toString());
+            this.modified209Parameters = new JSONArray(setMoveRouteCommand.toParametersJsonArray().toString());
             this.originalMoveRouteParams = this.modified209Parameters.optJSONObject(1);
             
             this.modifiedMoveRouteList = new JSONArray();
@@ -648,9 +651,9 @@ public class SetMoveRouteEditorDialog extends JDialog implements
             EventCommand setMoveCommand = fullCommandList.get(setMoveRouteIndex);
             setMoveCommand.setParameters(modified209Parameters);
             
-            updateCommand509List();
+            buildCommand509List();
 
-            System.out.println("DEBUG: SetMoveRouteEditorDialog: Changes saved and 509 commands synchronized.");
+            System.out.println("DEBUG: SetMoveRouteEditorDialog: Changes saved and 509 commands rebuilt.");
             System.out.println("DEBUG: Final 209 Parameters: " + modified209Parameters.toString(2));
 
         } catch (JSONException e) {
@@ -659,25 +662,20 @@ public class SetMoveRouteEditorDialog extends JDialog implements
         }
     }
 
-    private void updateCommand509List() {
+    /**
+     * Builds the 509 commands of the new route. The command list is left untouched, the
+     * caller puts them in place of the old ones.
+     */
+    private void buildCommand509List() {
         try {
-            // Remove old 509 commands
-            int currentIndex = setMoveRouteIndex + 1;
-            while (currentIndex < fullCommandList.size() && 
-                   fullCommandList.get(currentIndex).getCode() == 509) {
-                fullCommandList.remove(currentIndex);
-            }
-            
-            // Add new 509 commands
-            int insertIndex = setMoveRouteIndex + 1;
+            List<EventCommand> moveCommands = new ArrayList<>();
             for (int i = 0; i < modifiedMoveRouteList.length(); i++) {
                 JSONObject moveCmd = modifiedMoveRouteList.getJSONObject(i);
-                EventCommand cmd509 = new EventCommand(509, "0", new JSONArray().put(moveCmd));
-                fullCommandList.add(insertIndex, cmd509);
-                insertIndex++;
+                moveCommands.add(new EventCommand(509, "0", new JSONArray().put(moveCmd)));
             }
+            modifiedMoveCommands = moveCommands;
             
-            System.out.println("DEBUG: Updated " + modifiedMoveRouteList.length() + " command 509 entries");
+            System.out.println("DEBUG: Built " + moveCommands.size() + " command 509 entries");
             
         } catch (JSONException e) {
             System.err.println("Error updating 509 commands: " + e.getMessage());
@@ -695,4 +693,11 @@ public class SetMoveRouteEditorDialog extends JDialog implements
     public JSONArray getModified209Parameters() {
         return modified209Parameters;
     }
+
+    /**
+     * 509 commands replacing the ones following the Set Move Route, once saved.
+     */
+    public List<EventCommand> getModifiedMoveCommands() {
+        return modifiedMoveCommands;
+    }
 }
\ No newline at end of file
@@ -9,7 +9,6 @@ import java.awt.event.MouseEvent;
 import java.util.List;
 
 import javax.swing.BorderFactory;
-import javax.swing.DefaultListModel;
 import javax.swing.JButton;
 import javax.swing.JDialog;
 import javax.swing.JList;
@@ -17,13 +16,18 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.border.EtchedBorder;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
 
 import psdk.EventEditor.model.Event;
 import psdk.EventEditor.model.EventCommand;
 import psdk.EventEditor.model.EventPage;
 import psdk.EventEditor.model.EventEditorDialog.CommandListPanelPackage.CommandEditorManager;
+import psdk.EventEditor.model.EventEditorDialog.CommandListPanelPackage.CommandIndentModel;
+import psdk.EventEditor.model.EventEditorDialog.CommandListPanelPackage.CommandListModel;
 import psdk.EventEditor.model.EventEditorDialog.CommandListPanelPackage.CommandOperations;
 import psdk.EventEditor.model.EventEditorDialog.CommandListPanelPackage.EventPageManager;
 import psdk.EventEditor.views.EventCommandListCellRenderer;
@@ -39,7 +43,8 @@ public class CommandListPanel extends JPanel {
     private static final Dimension PREFERRED_SIZE = new Dimension(0, 300);
     
     private final JList<EventCommand> commandList;
-    private final DefaultListModel<EventCommand> commandListModel;
+    private final CommandListModel commandListModel;
+    private final CommandIndentModel indentModel;
     private final CommandOperations commandOperations;
     private final CommandEditorManager editorManager;
     private final EventPageManager pageManager;
@@ -49,10 +54,13 @@ public class CommandListPanel extends JPanel {
     private Event event;
     private CommandListModificationListener modificationListener;
     private JDialog parentDialog;
+    private boolean cellWidthUpdatePending;
 
     public CommandListPanel() {
-        this.commandListModel = new DefaultListModel<>();
+        this.commandListModel = new CommandListModel();
+        this.indentModel = new CommandIndentModel(commandListModel);
         this.commandList = createCommandList();
+        this.commandListModel.addListDataListener(new CellWidthListener());
         this.commandOperations = new CommandOperations(this);
         this.editorManager = new CommandEditorManager(this);
         this.pageManager = new EventPageManager(this);
@@ -66,7 +74,10 @@ public class CommandListPanel extends JPanel {
         list.setLayoutOrientation(JList.VERTICAL);
         list.setVisibleRowCount(-1);
         list.setBackground(LIST_BACKGROUND_COLOR);
-        list.setCellRenderer(new EventCommandListCellRenderer());
+        EventCommandListCellRenderer renderer = new EventCommandListCellRenderer(indentModel);
+        list.setCellRenderer(renderer);
+        // Fixed cell sizes let the list lay out thousands of rows without rendering each one.
+        list.setFixedCellHeight(renderer.getRowHeight(list));
         list.addMouseListener(new CommandListMouseListener());
         return list;
     }
@@ -132,14 +143,33 @@ public class CommandListPanel extends JPanel {
         return button;
     }
 
+    /**
+     * Shows the commands of a page, the list then edits that list directly.
+     */
     public void updateCommandList(List<EventCommand> commands) {
-        commandListModel.clear();
-        if (commands != null) {
-            commands.forEach(commandListModel::addElement);
-        }
+        commandListModel.setCommands(commands);
+        updateFixedCellWidth();
         System.out.println("[CommandListPanel] Command list updated. Total commands: " + commandListModel.size());
     }
 
+    /**
+     * Sizes the rows to the longest display line. The lines are cached on the commands, so
+     * only the rows changed since the last call are formatted again.
+     */
+    private void updateFixedCellWidth() {
+        cellWidthUpdatePending = false;
+        // The renderer uses a monospaced font, the width only depends on the number of columns.
+        EventCommandListCellRenderer renderer = (EventCommandListCellRenderer) commandList.getCellRenderer();
+        int columns = 0;
+        for (int i = 0; i < commandListModel.getSize(); i++) {
+            EventCommand command = commandListModel.getElementAt(i);
+            if (command != null) {
+                columns = Math.max(columns, renderer.getDisplayLine(command, indentModel.getIndent(i)).length());
+            }
+        }
+        commandList.setFixedCellWidth(renderer.getColumnsWidth(commandList, columns));
+    }
+
     public void loadEventPages(Event event) {
         pageManager.loadEventPages(event);
     }
@@ -177,6 +207,33 @@ public class CommandListPanel extends JPanel {
         // TODO: Implement paste functionality
     }
 
+    /**
+     * Updates the cell width after edits, once all the listeners of the model have seen them.
+     */
+    private class CellWidthListener implements ListDataListener {
+        @Override
+        public void intervalAdded(ListDataEvent e) {
+            scheduleUpdate();
+        }
+
+        @Override
+        public void intervalRemoved(ListDataEvent e) {
+            scheduleUpdate();
+        }
+
+        @Override
+        public void contentsChanged(ListDataEvent e) {
+            scheduleUpdate();
+        }
+
+        private void scheduleUpdate() {
+            if (!cellWidthUpdatePending) {
+                cellWidthUpdatePending = true;
+                SwingUtilities.invokeLater(CommandListPanel.this::updateFixedCellWidth);
+            }
+        }
+    }
+
     private class CommandListMouseListener extends MouseAdapter {
         @Override
         public void mouseClicked(MouseEvent e) {
@@ -194,10 +251,14 @@ public class CommandListPanel extends JPanel {
         return commandList;
     }
 
-    public DefaultListModel<EventCommand> getCommandListModel() {
+    public CommandListModel getCommandListModel() {
         return commandListModel;
     }
 
+    public CommandIndentModel getIndentModel() {
+        return indentModel;
+    }
+
     public Event getEvent() {
         return event;
     }
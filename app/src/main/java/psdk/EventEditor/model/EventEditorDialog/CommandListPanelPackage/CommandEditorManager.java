@@ -82,8 +82,9 @@ public class CommandEditorManager {
 
     private EventCommand createCommandCopy(EventCommand original) {
         try {
-            JSONArray parametersCopy = original.getParameters() != null ? 
-                new JSONArray(original.getParameters().toString()) : new JSONArray();
+            // Copied from the serialized form, so the original keeps its compact parameters
+            JSONArray parameters = original.toParametersJsonArray();
+            JSONArray parametersCopy = parameters != null ? new JSONArray(parameters.toString()) : new JSONArray();
             return new EventCommand(original.getCode(), original.getIndent(), parametersCopy);
         } catch (JSONException e) {
             System.err.println("Error deep copying EventCommand for specific editor: " + e.getMessage());
@@ -123,7 +124,14 @@ public class CommandEditorManager {
         dialog.setVisible(true);
         
         if (dialog.isCommandModified()) {
-            panel.updateCommandList(commands);
+            // The dialog updated the 209 command, its 509 commands are replaced through the list model
+            int oldCount = 0;
+            while (commandIndex + 1 + oldCount < commands.size() && commands.get(commandIndex + 1 + oldCount).getCode() == 509) {
+                oldCount++;
+            }
+            CommandListModel model = panel.getCommandListModel();
+            model.replace(commandIndex + 1, oldCount, dialog.getModifiedMoveCommands());
+            model.set(commandIndex, original);
             return true;
         }
         return false;
@@ -173,17 +181,8 @@ public class CommandEditorManager {
         if (dialog.isCommandModified()) {
             List<EventCommand> modifiedComments = dialog.getModifiedCommentCommands();
             
-            // Remove the old comment commands from the list
-            for (int i = 0; i < commentCommands.size(); i++) {
-                commands.remove(commentIndex);
-                panel.getCommandListModel().remove(commentIndex);
-            }
-            
-            // Insert the new comment commands
-            for (int i = 0; i < modifiedComments.size(); i++) {
-                commands.add(commentIndex + i, modifiedComments.get(i));
-                panel.getCommandListModel().add(commentIndex + i, modifiedComments.get(i));
-            }
+            // Replace the old comment commands by the new ones, in the page through the list model
+            panel.getCommandListModel().replace(commentIndex, commentCommands.size(), modifiedComments);
             
             // Update the selection to the first comment command
             JList<EventCommand> commandList = panel.getCommandList();
@@ -225,17 +224,8 @@ public class CommandEditorManager {
         if (dialog.isCommandModified()) {
             List<EventCommand> modifiedScripts = dialog.getModifiedScriptCommands();
             
-            // Remove the old script commands from the list
-            for (int i = 0; i < scriptCommands.size(); i++) {
-                commands.remove(scriptIndex);
-                panel.getCommandListModel().remove(scriptIndex);
-            }
-            
-            // Insert the new script commands
-            for (int i = 0; i < modifiedScripts.size(); i++) {
-                commands.add(scriptIndex + i, modifiedScripts.get(i));
-                panel.getCommandListModel().add(scriptIndex + i, modifiedScripts.get(i));
-            }
+            // Replace the old script commands by the new ones, in the page through the list model
+            panel.getCommandListModel().replace(scriptIndex, scriptCommands.size(), modifiedScripts);
             
             // Update the selection to the first script command
             JList<EventCommand> commandList = panel.getCommandList();
@@ -276,7 +266,7 @@ public class CommandEditorManager {
         
         EventCommand setMoveCommand = commands.get(setMoveRouteIndex);
         try {
-            JSONObject moveRouteParams = setMoveCommand.getParameters().getJSONObject(1);
+            JSONObject moveRouteParams = setMoveCommand.readParameters().getJSONObject(1);
             JSONArray moveList = moveRouteParams.getJSONArray("list");
             
             int expectedCount = 0;
@@ -307,27 +297,24 @@ public class CommandEditorManager {
     private void repairSetMoveRouteSync(List<EventCommand> commands, int setMoveRouteIndex) {
         try {
             EventCommand setMoveCommand = commands.get(setMoveRouteIndex);
-            JSONObject moveRouteParams = setMoveCommand.getParameters().getJSONObject(1);
+            JSONObject moveRouteParams = setMoveCommand.readParameters().getJSONObject(1);
             JSONArray moveList = moveRouteParams.getJSONArray("list");
             
-            // Remove old 509 commands
-            int i = setMoveRouteIndex + 1;
-            while (i < commands.size() && commands.get(i).getCode() == 509) {
-                commands.remove(i);
-                panel.getCommandListModel().remove(i);
+            // Count old 509 commands
+            int oldCount = 0;
+            while (setMoveRouteIndex + 1 + oldCount < commands.size() && commands.get(setMoveRouteIndex + 1 + oldCount).getCode() == 509) {
+                oldCount++;
             }
             
             // Create new 509 commands
-            int insertIndex = setMoveRouteIndex + 1;
+            List<EventCommand> newMoveCommands = new ArrayList<>();
             for (int j = 0; j < moveList.length(); j++) {
                 JSONObject moveCmd = moveList.getJSONObject(j);
                 if (moveCmd.getInt("code") != 0) {
-                    EventCommand cmd509 = new EventCommand(509, "0", new JSONArray().put(moveCmd));
-                    commands.add(insertIndex, cmd509);
-                    panel.getCommandListModel().add(insertIndex, cmd509);
-                    insertIndex++;
+                    newMoveCommands.add(new EventCommand(509, "0", new JSONArray().put(moveCmd)));
                 }
             }
+            panel.getCommandListModel().replace(setMoveRouteIndex + 1, oldCount, newMoveCommands);
             
         } catch (JSONException e) {
             System.err.println("Error repairing Set Move Route sync: " + e.getMessage());
@@ -353,22 +340,8 @@ public class CommandEditorManager {
         JList<EventCommand> commandList = panel.getCommandList();
         int selectedIndex = commandList.getSelectedIndex();
         if (selectedIndex != -1) {
+            commandToEdit.invalidateDisplayCache();
             panel.getCommandListModel().set(selectedIndex, commandToEdit);
-            updateCommandInEventPage(selectedIndex, commandToEdit);
-        }
-    }
-
-    private void updateCommandInEventPage(int index, EventCommand command) {
-        if (panel.getPageTabbedPane() == null || panel.getEvent() == null) {
-            return;
-        }
-        
-        int currentPageIndex = panel.getPageTabbedPane().getSelectedIndex();
-        if (currentPageIndex != -1 && currentPageIndex < panel.getEvent().getPages().size()) {
-            EventPage currentPage = panel.getEvent().getPages().get(currentPageIndex);
-            if (currentPage != null && index < currentPage.getCommands().size()) {
-                currentPage.getCommands().set(index, command);
-            }
         }
     }
 
@@ -0,0 +1,164 @@
+package psdk.EventEditor.model.EventEditorDialog.CommandListPanelPackage;
+
+import javax.swing.ListModel;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import psdk.EventEditor.model.EventCommand;
+
+/**
+ * Display indent of every row of a command list, computed in one linear pass and kept until
+ * the list changes. Gives the same result as {@link IndentCalculator}, which rescans the list
+ * for each row.
+ */
+public class CommandIndentModel implements ListDataListener {
+
+    private final ListModel<EventCommand> listModel;
+    private int[] indents = new int[0];
+    private boolean dirty = true;
+
+    public CommandIndentModel(ListModel<EventCommand> listModel) {
+        this.listModel = listModel;
+        listModel.addListDataListener(this);
+    }
+
+    public int getIndent(int index) {
+        if (dirty) {
+            rebuild();
+        }
+        return index >= 0 && index < indents.length ? indents[index] : 0;
+    }
+
+    /**
+     * Forces the next {@link #getIndent(int)} to recompute, for edits made to the commands
+     * without going through the list model.
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    @Override
+    public void intervalAdded(ListDataEvent e) {
+        dirty = true;
+    }
+
+    @Override
+    public void intervalRemoved(ListDataEvent e) {
+        dirty = true;
+    }
+
+    @Override
+    public void contentsChanged(ListDataEvent e) {
+        dirty = true;
+    }
+
+    private void rebuild() {
+        int size = listModel.getSize();
+        EventCommand[] commands = new EventCommand[size];
+        int[] baseIndents = new int[size];
+        for (int i = 0; i < size; i++) {
+            commands[i] = listModel.getElementAt(i);
+            baseIndents[i] = commands[i] != null ? IndentCalculator.parseIndentLevel(commands[i]) : 0;
+        }
+
+        // Backward pass: does the next Show Choices / End Choice after each row close a branch.
+        boolean[] endChoiceAfter = new boolean[size];
+        boolean endChoiceFound = false;
+        for (int i = size - 1; i >= 0; i--) {
+            endChoiceAfter[i] = endChoiceFound;
+            int code = codeOf(commands[i]);
+            if (code == 404) {
+                endChoiceFound = true;
+            } else if (code == 102) {
+                endChoiceFound = false;
+            }
+        }
+
+        // Forward pass, keeping the last command each backward scan of IndentCalculator would stop at.
+        int[] result = new int[size];
+        int lastCommentOrContinuation = -1; // 108 or 408
+        int lastScriptOrContinuation = -1;  // 355 or 655
+        int lastChoiceOrWhen = -1;          // 102 or 402
+        int lastChoiceMarker = -1;          // 102, 402 or 404
+        int lastWhen = -1;                  // 402
+        int lastMoveRoute = -1;             // 209
+        // Positions of the other non 509 commands, indents strictly increasing from the bottom:
+        // the topmost entry with an indent <= base is the closest one ending a move route.
+        int[] stackIndents = new int[size];
+        int[] stackPositions = new int[size];
+        int stackSize = 0;
+
+        for (int i = 0; i < size; i++) {
+            EventCommand command = commands[i];
+            int code = codeOf(command);
+            int base = baseIndents[i];
+            int indent = base;
+
+            if (command == null) {
+                indent = 0;
+            } else if (code == 408) {
+                indent = continuationIndent(lastCommentOrContinuation, 108, commands, baseIndents, base);
+            } else if (code == 655) {
+                indent = continuationIndent(lastScriptOrContinuation, 355, commands, baseIndents, base);
+            } else if (code == 402) {
+                indent = continuationIndent(lastChoiceOrWhen, 102, commands, baseIndents, base);
+            } else if (code != 404 && lastChoiceMarker >= 0 && codeOf(commands[lastChoiceMarker]) == 402 && endChoiceAfter[i]) {
+                indent = baseIndents[lastWhen] + 1;
+            } else if (code == 509 && lastMoveRoute >= 0) {
+                int blocker = -1;
+                for (int s = stackSize - 1; s >= 0; s--) {
+                    if (stackIndents[s] <= base) {
+                        blocker = stackPositions[s];
+                        break;
+                    }
+                }
+                if (lastMoveRoute > blocker) {
+                    indent = baseIndents[lastMoveRoute] + 1;
+                }
+            }
+            result[i] = indent;
+
+            switch (code) {
+                case 108: case 408: lastCommentOrContinuation = i; break;
+                case 355: case 655: lastScriptOrContinuation = i; break;
+                default: break;
+            }
+            if (code == 102 || code == 402) {
+                lastChoiceOrWhen = i;
+            }
+            if (code == 102 || code == 402 || code == 404) {
+                lastChoiceMarker = i;
+            }
+            if (code == 402) {
+                lastWhen = i;
+            }
+            if (code == 209) {
+                lastMoveRoute = i;
+            } else if (code != 509 && command != null) {
+                while (stackSize > 0 && stackIndents[stackSize - 1] >= base) {
+                    stackSize--;
+                }
+                stackIndents[stackSize] = base;
+                stackPositions[stackSize] = i;
+                stackSize++;
+            }
+        }
+
+        indents = result;
+        dirty = false;
+    }
+
+    private static int continuationIndent(int previous, int parentCode, EventCommand[] commands, int[] baseIndents, int base) {
+        if (previous < 0) {
+            return base;
+        }
+        if (commands[previous].getCode() == parentCode) {
+            return baseIndents[previous] + 1;
+        }
+        return Math.max(baseIndents[previous], base + 1);
+    }
+
+    private static int codeOf(EventCommand command) {
+        return command != null ? command.getCode() : -1;
+    }
+}
@@ -0,0 +1,104 @@
+package psdk.EventEditor.model.EventEditorDialog.CommandListPanelPackage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.AbstractListModel;
+
+import psdk.EventEditor.model.EventCommand;
+
+/**
+ * List model that is a live view over the commands of an event page: edits made through it
+ * go straight to the page's list, and only the changed rows are reported to the JList.
+ */
+public class CommandListModel extends AbstractListModel<EventCommand> {
+
+    private List<EventCommand> commands = new ArrayList<>();
+
+    /**
+     * Shows another list of commands, which is used as is, without copy.
+     */
+    public void setCommands(List<EventCommand> commands) {
+        int oldSize = this.commands.size();
+        this.commands = commands != null ? commands : new ArrayList<>();
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (!this.commands.isEmpty()) {
+            fireIntervalAdded(this, 0, this.commands.size() - 1);
+        }
+    }
+
+    public List<EventCommand> getCommands() {
+        return commands;
+    }
+
+    @Override
+    public int getSize() {
+        return commands.size();
+    }
+
+    @Override
+    public EventCommand getElementAt(int index) {
+        return commands.get(index);
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    public boolean isEmpty() {
+        return commands.isEmpty();
+    }
+
+    public void add(int index, EventCommand command) {
+        commands.add(index, command);
+        fireIntervalAdded(this, index, index);
+    }
+
+    public void addElement(EventCommand command) {
+        add(commands.size(), command);
+    }
+
+    public EventCommand remove(int index) {
+        EventCommand removed = commands.remove(index);
+        fireIntervalRemoved(this, index, index);
+        return removed;
+    }
+
+    public void set(int index, EventCommand command) {
+        commands.set(index, command);
+        fireContentsChanged(this, index, index);
+    }
+
+    /**
+     * Moves a command, only the rows between the two positions change.
+     */
+    public void move(int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return;
+        }
+        commands.add(toIndex, commands.remove(fromIndex));
+        fireContentsChanged(this, Math.min(fromIndex, toIndex), Math.max(fromIndex, toIndex));
+    }
+
+    /**
+     * Replaces count commands starting at index by the given ones, like a command and its
+     * continuation lines rewritten by an editor.
+     */
+    public void replace(int index, int count, List<EventCommand> replacements) {
+        List<EventCommand> range = commands.subList(index, index + count);
+        range.clear();
+        range.addAll(replacements);
+
+        int common = Math.min(count, replacements.size());
+        if (common > 0) {
+            fireContentsChanged(this, index, index + common - 1);
+        }
+        if (count > common) {
+            fireIntervalRemoved(this, index + common, index + count - 1);
+        } else if (replacements.size() > common) {
+            fireIntervalAdded(this, index + common, index + replacements.size() - 1);
+        }
+    }
+}
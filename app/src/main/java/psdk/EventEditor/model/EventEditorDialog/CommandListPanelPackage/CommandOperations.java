@@ -1,8 +1,5 @@
 package psdk.EventEditor.model.EventEditorDialog.CommandListPanelPackage;
 
-import java.util.List;
-
-import javax.swing.DefaultListModel;
 import javax.swing.JList;
 import javax.swing.JOptionPane;
 
@@ -31,14 +28,14 @@ public class CommandOperations {
         EventCommand newCommand = createNewCommand();
         int insertIndex = calculateInsertIndex();
         
-        insertCommand(newCommand, insertIndex, currentPage);
+        insertCommand(newCommand, insertIndex);
         selectNewCommand(newCommand);
         notifyModification();
     }
 
     public void deleteCommand() {
         JList<EventCommand> commandList = panel.getCommandList();
-        DefaultListModel<EventCommand> commandListModel = panel.getCommandListModel();
+        CommandListModel commandListModel = panel.getCommandListModel();
         
         int selectedIndex = commandList.getSelectedIndex();
         if (selectedIndex == -1) {
@@ -47,8 +44,7 @@ public class CommandOperations {
         }
 
         if (confirmDelete()) {
-            EventCommand commandToRemove = commandListModel.getElementAt(selectedIndex);
-            removeCommand(selectedIndex, commandToRemove);
+            removeCommand(selectedIndex);
             updateSelectionAfterDelete(selectedIndex);
             notifyModification();
         }
@@ -66,7 +62,7 @@ public class CommandOperations {
 
     public void moveCommandDown() {
         JList<EventCommand> commandList = panel.getCommandList();
-        DefaultListModel<EventCommand> commandListModel = panel.getCommandListModel();
+        CommandListModel commandListModel = panel.getCommandListModel();
         
         int selectedIndex = commandList.getSelectedIndex();
         if (selectedIndex == -1 || selectedIndex >= commandListModel.size() - 1) return;
@@ -103,23 +99,17 @@ public class CommandOperations {
 
     private int calculateInsertIndex() {
         JList<EventCommand> commandList = panel.getCommandList();
-        DefaultListModel<EventCommand> commandListModel = panel.getCommandListModel();
+        CommandListModel commandListModel = panel.getCommandListModel();
         
         int selectedIndex = commandList.getSelectedIndex();
         return (selectedIndex == -1 || commandListModel.isEmpty()) ? 
             commandListModel.size() : selectedIndex + 1;
     }
 
-    private void insertCommand(EventCommand command, int index, EventPage page) {
-        DefaultListModel<EventCommand> commandListModel = panel.getCommandListModel();
-        
-        if (index >= commandListModel.size()) {
-            commandListModel.addElement(command);
-            page.getCommands().add(command);
-        } else {
-            commandListModel.add(index, command);
-            page.getCommands().add(index, command);
-        }
+    private void insertCommand(EventCommand command, int index) {
+        // The list model is a view over the page's commands, the page is updated through it.
+        CommandListModel commandListModel = panel.getCommandListModel();
+        commandListModel.add(Math.min(index, commandListModel.size()), command);
     }
 
     private void selectNewCommand(EventCommand command) {
@@ -136,17 +126,12 @@ public class CommandOperations {
         return confirm == JOptionPane.YES_OPTION;
     }
 
-    private void removeCommand(int index, EventCommand command) {
+    private void removeCommand(int index) {
         panel.getCommandListModel().remove(index);
-        
-        EventPage currentPage = getCurrentPage();
-        if (currentPage != null) {
-            currentPage.getCommands().remove(command);
-        }
     }
 
     private void updateSelectionAfterDelete(int deletedIndex) {
-        DefaultListModel<EventCommand> commandListModel = panel.getCommandListModel();
+        CommandListModel commandListModel = panel.getCommandListModel();
         JList<EventCommand> commandList = panel.getCommandList();
         
         if (commandListModel.size() > 0) {
@@ -156,20 +141,7 @@ public class CommandOperations {
     }
 
     private void moveCommand(int fromIndex, int toIndex) {
-        DefaultListModel<EventCommand> commandListModel = panel.getCommandListModel();
-        
-        // Move in UI model
-        EventCommand commandToMove = commandListModel.getElementAt(fromIndex);
-        commandListModel.remove(fromIndex);
-        commandListModel.add(toIndex, commandToMove);
-
-        // Move in data model
-        EventPage currentPage = getCurrentPage();
-        if (currentPage != null) {
-            List<EventCommand> commands = currentPage.getCommands();
-            EventCommand modelCommand = commands.remove(fromIndex);
-            commands.add(toIndex, modelCommand);
-        }
+        panel.getCommandListModel().move(fromIndex, toIndex);
     }
 
     private void showWarning(String message, String title) {
@@ -32,7 +32,7 @@ public class IndentCalculator {
         return baseIndentLevel;
     }
 
-    private int parseIndentLevel(EventCommand command) {
+    static int parseIndentLevel(EventCommand command) {
         try {
             return Integer.parseInt(String.valueOf(command.getIndent()));
         } catch (NumberFormatException e) {
@@ -6,8 +6,8 @@ import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import javax.imageio.ImageIO;
 import psdk.EventEditor.ConfigManager;
+import psdk.EventEditor.utils.CompatibleImages;
 
 /**
  * Gestionnaire pour l'affichage des sprites de personnages dans les previews
@@ -103,7 +103,7 @@ public class SpritePreviewManager {
                                              int characterIndex, int direction, int pattern, int width, int height) {
         try {
             // Charger l'image complète
-            BufferedImage fullImage = ImageIO.read(new File(imagePath));
+            BufferedImage fullImage = CompatibleImages.read(new File(imagePath));
             
             if (fullImage == null) {
                 setLoadError(previewLabel, characterFileName);
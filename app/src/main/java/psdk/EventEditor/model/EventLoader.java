@@ -19,11 +19,10 @@ public class EventLoader {
             JSONObject eventJson = eventsJsonArray.getJSONObject(i);
             
             int id = eventJson.optInt("id", 0);
-            String name = eventJson.optString("name", "New Event");
             int x = eventJson.optInt("x", 0);
             int y = eventJson.optInt("y", 0);
 
-            Event event = new Event(id, name, x, y);
+            Event event = newEvent(id, eventJson, "New Event", x, y);
 
             JSONArray pagesJson = eventJson.optJSONArray("pages");
             if (pagesJson != null) {
@@ -42,6 +41,17 @@ public class EventLoader {
         return events;
     }
 
+    private static Event newEvent(int id, JSONObject eventJson, String defaultName, int x, int y) {
+        Object nameValue = eventJson.opt("name");
+        if (MapYmlWriter.isBinaryContent(nameValue)) {
+            String base64 = ((JSONObject) nameValue).getString(MapYmlLoader.BINARY_CONTENT_KEY);
+            Event event = new Event(id, MapYmlStreamReader.decodeBinaryName(base64), x, y);
+            event.setBinaryName(base64);
+            return event;
+        }
+        return new Event(id, eventJson.optString("name", defaultName), x, y);
+    }
+
     private static EventPage loadEventPageFromJson(JSONObject pageJson, int defaultPageIndex) {
         EventPage page = new EventPage();
         
@@ -102,7 +112,7 @@ public class EventLoader {
                         parameters = new JSONArray();
                     }
                     
-                    EventCommand command = new EventCommand(code, indent, parameters);
+                    EventCommand command = new EventCommand(code, indent, CommandParameters.compact(parameters));
                     commandsList.add(command);
                 }
                 page.setCommands(commandsList);
@@ -126,10 +136,9 @@ public class EventLoader {
                 JSONObject eventJson = eventsObject.getJSONObject(key);
                 try {
                     int id = Integer.parseInt(key);
-                    String name = eventJson.optString("name", "Event " + id);
                     int x = eventJson.optInt("x", 0);
                     int y = eventJson.optInt("y", 0);
-                    Event event = new Event(id, name, x, y);
+                    Event event = newEvent(id, eventJson, "Event " + id, x, y);
 
                     // Load pages using the same method
                     JSONArray pagesJsonArray = eventJson.optJSONArray("pages");
@@ -48,6 +48,9 @@ public class EventPage {
 
     private List<EventCommand> commands; // List of commands for the page
 
+    // Set by every change, cleared once the page has been written back to the map JSON
+    private boolean dirty = true;
+
     // Default Constructor
     public EventPage() {
         this.commands = new ArrayList<>();
@@ -104,44 +107,46 @@ public class EventPage {
     }
 
     public boolean isThrough() { return through; }
-    public void setThrough(boolean through) { this.through = through; }
+    public void setThrough(boolean through) { this.through = through; markDirty(); }
 
     public int getMoveFrequency() { return move_frequency; }
-    public void setMoveFrequency(int move_frequency) { this.move_frequency = move_frequency; }
+    public void setMoveFrequency(int move_frequency) { this.move_frequency = move_frequency; markDirty(); }
 
     public boolean isAlwaysOnTop() { return always_on_top; }
-    public void setAlwaysOnTop(boolean always_on_top) { this.always_on_top = always_on_top; }
+    public void setAlwaysOnTop(boolean always_on_top) { this.always_on_top = always_on_top; markDirty(); }
 
     public boolean isWalkAnime() { return walk_anime; }
-    public void setWalkAnime(boolean walk_anime) { this.walk_anime = walk_anime; }
+    public void setWalkAnime(boolean walk_anime) { this.walk_anime = walk_anime; markDirty(); }
 
     public int getMoveSpeed() { return move_speed; }
-    public void setMoveSpeed(int move_speed) { this.move_speed = move_speed; }
+    public void setMoveSpeed(int move_speed) { this.move_speed = move_speed; markDirty(); }
 
     public boolean isStepAnime() { return step_anime; }
-    public void setStepAnime(boolean step_anime) { this.step_anime = step_anime; }
+    public void setStepAnime(boolean step_anime) { this.step_anime = step_anime; markDirty(); }
 
     public boolean isDirectionFix() { return direction_fix; }
-    public void setDirectionFix(boolean direction_fix) { this.direction_fix = direction_fix; }
+    public void setDirectionFix(boolean direction_fix) { this.direction_fix = direction_fix; markDirty(); }
 
     public JSONObject getMoveRoute() { return move_route; }
     public void setMoveRoute(JSONObject move_route) { 
+        markDirty();
         this.move_route = (move_route != null) ? move_route : new JSONObject(); 
     }
 
     // --- Basic Page Property Getters and Setters ---
     public int getPage_index() { return page_index; }
-    public void setPage_index(int page_index) { this.page_index = page_index; }
+    public void setPage_index(int page_index) { this.page_index = page_index; markDirty(); }
 
     public int getMove_type() { return move_type; }
-    public void setMove_type(int move_type) { this.move_type = move_type; }
+    public void setMove_type(int move_type) { this.move_type = move_type; markDirty(); }
 
     public int getTrigger() { return trigger; }
-    public void setTrigger(int trigger) { this.trigger = trigger; }
+    public void setTrigger(int trigger) { this.trigger = trigger; markDirty(); }
 
     // --- Graphic Getters and Setters ---
     public JSONObject getGraphic() { return graphic; }
     public void setGraphic(JSONObject graphic) {
+        markDirty();
         this.graphic = (graphic != null) ? graphic : new JSONObject();
         // Update individual fields from the JSONObject
         this.characterName = this.graphic.optString("character_name", "");
@@ -155,36 +160,42 @@ public class EventPage {
     // Individual graphic field getters and setters (for EventLoader direct calls)
     public String getCharacterName() { return characterName; }
     public void setCharacterName(String characterName) {
+        markDirty();
         this.characterName = characterName;
         try { this.graphic.put("character_name", characterName); } catch (JSONException e) { /* handle */ }
     }
 
     public int getCharacterIndex() { return characterIndex; }
     public void setCharacterIndex(int characterIndex) {
+        markDirty();
         this.characterIndex = characterIndex;
         try { this.graphic.put("pattern", characterIndex); } catch (JSONException e) { /* handle */ }
     }
 
     public int getDirection() { return direction; }
     public void setDirection(int direction) {
+        markDirty();
         this.direction = direction;
         try { this.graphic.put("direction", direction); } catch (JSONException e) { /* handle */ }
     }
 
     public int getPattern() { return pattern; }
     public void setPattern(int pattern) {
+        markDirty();
         this.pattern = pattern;
         try { this.graphic.put("pattern", pattern); } catch (JSONException e) { /* handle */ }
     }
 
     public int getOpacity() { return opacity; }
     public void setOpacity(int opacity) {
+        markDirty();
         this.opacity = opacity;
         try { this.graphic.put("opacity", opacity); } catch (JSONException e) { /* handle */ }
     }
 
     public int getBlendType() { return blendType; }
     public void setBlendType(int blendType) {
+        markDirty();
         this.blendType = blendType;
         try { this.graphic.put("blend_type", blendType); } catch (JSONException e) { /* handle */ }
     }
@@ -192,6 +203,7 @@ public class EventPage {
     // --- Condition Getters and Setters ---
     public JSONObject getCondition() { return condition; }
     public void setCondition(JSONObject condition) {
+        markDirty();
         this.condition = (condition != null) ? condition : new JSONObject();
         // Update individual fields from the JSONObject for direct access (if needed)
         this.conditionSwitch1Valid = this.condition.optBoolean("switch1_valid", false);
@@ -208,11 +220,13 @@ public class EventPage {
     // Individual condition field getters and setters (for EventLoader direct calls)
     public boolean getConditionSwitch1Valid() { return conditionSwitch1Valid; }
     public void setConditionSwitch1Valid(boolean valid) {
+        markDirty();
         this.conditionSwitch1Valid = valid;
         try { this.condition.put("switch1_valid", valid); } catch (JSONException e) { /* handle */ }
     }
     public int getConditionSwitch1Id() { return conditionSwitch1Id; }
     public void setConditionSwitch1Id(int id) {
+        markDirty();
         this.conditionSwitch1Id = id;
         try { this.condition.put("switch1_id", id); } catch (JSONException e) { /* handle */ }
     }
@@ -225,9 +239,26 @@ public class EventPage {
     }
 
     public void setCommands(List<EventCommand> commands) {
+        markDirty();
         this.commands = commands;
     }
 
+    /**
+     * To call after editing the command list or a command of the page, which the page
+     * cannot see by itself.
+     */
+    public void markDirty() {
+        this.dirty = true;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void clearDirty() {
+        this.dirty = false;
+    }
+
     /**
      * Converts the internal List<EventCommand> to a JSONArray of raw command JSON objects.
      */
@@ -239,7 +270,7 @@ public class EventPage {
                 try {
                     cmdJson.put("code", cmd.getCode());
                     cmdJson.put("indent", cmd.getIndent()); 
-                    cmdJson.put("parameters", cmd.getParameters());
+                    cmdJson.put("parameters", cmd.toParametersJsonArray());
                     jsonArray.put(cmdJson);
                 } catch (JSONException e) {
                     System.err.println("Error converting EventCommand to JSON: " + e.getMessage());
@@ -261,7 +292,7 @@ public class EventPage {
                     this.commands.add(new EventCommand(
                         cmdJson.getInt("code"),
                         cmdJson.getString("indent"), 
-                        cmdJson.getJSONArray("parameters")
+                        CommandParameters.compact(cmdJson.getJSONArray("parameters"))
                     ));
                 } catch (JSONException e) {
                     System.err.println("Error parsing command JSON into EventCommand: " + e.getMessage());
@@ -0,0 +1,123 @@
+package psdk.EventEditor.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Index of the events of a map by tile, so a click finds its event without scanning the
+ * whole list and painting only visits the events of the visible area.
+ * Events are also grouped in square buckets of BUCKET_SIZE tiles for range queries.
+ */
+public class EventSpatialIndex {
+
+    private static final int BUCKET_SIZE = 16;
+
+    private final Map<Long, Event> eventsByTile = new HashMap<>();
+    private final Map<Long, List<Event>> buckets = new HashMap<>();
+    private int size = 0;
+
+    /**
+     * Replaces the content of the index by the given events.
+     */
+    public void rebuild(List<Event> events) {
+        clear();
+        if (events != null) {
+            for (Event event : events) {
+                add(event);
+            }
+        }
+    }
+
+    public void clear() {
+        eventsByTile.clear();
+        buckets.clear();
+        size = 0;
+    }
+
+    public void add(Event event) {
+        // Like the list scan it replaces, the first event of a tile wins a hit test.
+        eventsByTile.putIfAbsent(pack(event.getX(), event.getY()), event);
+        buckets.computeIfAbsent(bucketKey(event.getX(), event.getY()), key -> new ArrayList<>()).add(event);
+        size++;
+    }
+
+    public void remove(Event event) {
+        long bucketKey = bucketKey(event.getX(), event.getY());
+        List<Event> bucket = buckets.get(bucketKey);
+        if (bucket == null || !bucket.remove(event)) {
+            return;
+        }
+        size--;
+        if (bucket.isEmpty()) {
+            buckets.remove(bucketKey);
+        }
+
+        long tileKey = pack(event.getX(), event.getY());
+        if (eventsByTile.get(tileKey) == event) {
+            eventsByTile.remove(tileKey);
+            // Another event may share the tile, it takes over.
+            for (Event other : bucket) {
+                if (other.getX() == event.getX() && other.getY() == event.getY()) {
+                    eventsByTile.put(tileKey, other);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the event on the tile, or null.
+     */
+    public Event getEventAt(int x, int y) {
+        return eventsByTile.get(pack(x, y));
+    }
+
+    /**
+     * Visits the events whose tile is inside [minX, maxX] x [minY, maxY], bounds included.
+     */
+    public void forEachInArea(int minX, int minY, int maxX, int maxY, Consumer<Event> action) {
+        if (size == 0 || minX > maxX || minY > maxY) {
+            return;
+        }
+        int minBucketX = Math.floorDiv(minX, BUCKET_SIZE);
+        int maxBucketX = Math.floorDiv(maxX, BUCKET_SIZE);
+        int minBucketY = Math.floorDiv(minY, BUCKET_SIZE);
+        int maxBucketY = Math.floorDiv(maxY, BUCKET_SIZE);
+
+        for (int bucketY = minBucketY; bucketY <= maxBucketY; bucketY++) {
+            for (int bucketX = minBucketX; bucketX <= maxBucketX; bucketX++) {
+                List<Event> bucket = buckets.get(pack(bucketX, bucketY));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Event event : bucket) {
+                    if (event.getX() >= minX && event.getX() <= maxX && event.getY() >= minY && event.getY() <= maxY) {
+                        action.accept(event);
+                    }
+                }
+            }
+        }
+    }
+
+    public List<Event> getEventsInArea(int minX, int minY, int maxX, int maxY) {
+        List<Event> result = new ArrayList<>();
+        forEachInArea(minX, minY, maxX, maxY, result::add);
+        return result.isEmpty() ? Collections.emptyList() : result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static long bucketKey(int x, int y) {
+        return pack(Math.floorDiv(x, BUCKET_SIZE), Math.floorDiv(y, BUCKET_SIZE));
+    }
+
+    private static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+}
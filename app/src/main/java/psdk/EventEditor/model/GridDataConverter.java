@@ -7,7 +7,7 @@ import libs.json.JSONObject;
 
 public class GridDataConverter {
 
-    public static int[][][] convertJsonGridTo3DArray(JSONObject gridInfoJson) {
+    public static TileGrid convertJsonGridToTileGrid(JSONObject gridInfoJson) {
         if (gridInfoJson == null || !gridInfoJson.has("width") || !gridInfoJson.has("height") ||
             !gridInfoJson.has("layers") || !gridInfoJson.has("grids")) {
             System.err.println("ERROR: Invalid or incomplete grid_info JSONObject from JSON.");
@@ -20,12 +20,12 @@ public class GridDataConverter {
 
         JSONObject layersData = gridInfoJson.getJSONObject("grids");
 
-        if (width == 0 || height == 0 || depth == 0) {
+        if (width <= 0 || height <= 0 || depth <= 0) {
             System.err.println("ERROR: Invalid grid dimensions parsed from JSON.");
             return null;
         }
 
-        int[][][] grid = new int[width][height][depth];
+        TileGrid grid = new TileGrid(width, height, depth);
 
         Iterator<String> layerKeys = layersData.keys();
         while (layerKeys.hasNext()) {
@@ -45,7 +45,7 @@ public class GridDataConverter {
                 int colsToRead = Math.min(rowNums.length(), width);
 
                 for (int x = 0; x < colsToRead; x++) {
-                    grid[x][y][z] = rowNums.getInt(x);
+                    grid.setTile(x, y, z, rowNums.getInt(x));
                 }
             }
         }
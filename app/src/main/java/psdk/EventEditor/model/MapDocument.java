@@ -0,0 +1,194 @@
+package psdk.EventEditor.model;
+
+import java.io.File;
+import java.util.List;
+
+import libs.json.JSONArray;
+import libs.json.JSONObject;
+
+/**
+ * An open map: the map properties (tileset, audio, encounters), its decoded tiles and its
+ * events. This is the only in-memory copy of the map, views read and edit it directly and
+ * {@link MapYmlWriter} writes it back without going through JSON.
+ */
+public class MapDocument {
+
+    private final int mapId;
+    private final File file;
+    // Modification time of the file the document matches, to detect changes made outside
+    private long lastModified;
+    // Map JSON as returned by the stream loader, without "events" nor "map_data.grid_info"
+    private final JSONObject header;
+    private final TileGrid tileGrid;
+    private final List<Event> events;
+    private boolean modified;
+
+    public MapDocument(int mapId, File file, long lastModified, JSONObject header, TileGrid tileGrid, List<Event> events) {
+        this.mapId = mapId;
+        this.file = file;
+        this.lastModified = lastModified;
+        this.header = header != null ? header : new JSONObject();
+        this.tileGrid = tileGrid;
+        this.events = events;
+        // Freshly loaded events match the file
+        for (Event event : events) {
+            event.clearDirty();
+        }
+    }
+
+    public int getMapId() {
+        return mapId;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public JSONObject getHeader() {
+        return header;
+    }
+
+    public TileGrid getTileGrid() {
+        return tileGrid;
+    }
+
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    public int getTilesetId() {
+        JSONObject mapData = header.optJSONObject("map_data");
+        return mapData != null ? mapData.optInt("tileset_id", 0) : 0;
+    }
+
+    /**
+     * To call after changing the header or the event list itself, edits inside an event are
+     * tracked by the event.
+     */
+    public void markModified() {
+        this.modified = true;
+    }
+
+    public boolean isModified() {
+        if (modified) {
+            return true;
+        }
+        for (Event event : events) {
+            if (event.isDirty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True when the file was written by something else since the document was loaded or saved.
+     */
+    public boolean isChangedOnDisk() {
+        return file != null && file.lastModified() != lastModified;
+    }
+
+    /**
+     * Called once the document has been written to disk.
+     */
+    public void markSaved() {
+        this.modified = false;
+        if (file != null) {
+            this.lastModified = file.lastModified();
+        }
+        for (Event event : events) {
+            event.clearDirty();
+        }
+    }
+
+    /**
+     * Rough number of bytes the document keeps alive, used to budget the map cache.
+     */
+    public long estimateSize() {
+        long bytes = 1024;
+        if (tileGrid != null) {
+            bytes += 2L * tileGrid.getWidth() * tileGrid.getHeight() * tileGrid.getLayers();
+        }
+        for (Event event : events) {
+            bytes += 256;
+            for (EventPage page : event.getPages()) {
+                bytes += 512 + 128L * page.getCommands().size();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Builds the full map JSON, events included, in the layout of {@link MapYmlLoader#loadMap}.
+     * Only meant for debugging exports, the editor itself never needs it.
+     */
+    public JSONObject toJSONObject() {
+        JSONObject json = new JSONObject();
+        for (String key : header.keySet()) {
+            json.put(key, header.get(key));
+        }
+        JSONArray eventsArray = new JSONArray();
+        for (Event event : events) {
+            try {
+                eventsArray.put(eventToJson(event));
+            } catch (Exception e) {
+                System.err.println("[MapDocument] Error converting event " + event.getId() + ": " + e.getMessage());
+            }
+        }
+        json.put("events", eventsArray);
+        return json;
+    }
+
+    private static JSONObject eventToJson(Event event) {
+        JSONObject eventJson = new JSONObject();
+
+        eventJson.put("id", event.getId());
+        if (event.getBinaryName() != null) {
+            eventJson.put("name", new JSONObject().put(MapYmlLoader.BINARY_CONTENT_KEY, event.getBinaryName()));
+        } else {
+            eventJson.put("name", event.getName());
+        }
+        eventJson.put("x", event.getX());
+        eventJson.put("y", event.getY());
+
+        JSONArray pagesArray = new JSONArray();
+        if (event.getPages() != null) {
+            for (EventPage page : event.getPages()) {
+                pagesArray.put(pageToJson(page));
+            }
+        }
+        eventJson.put("pages", pagesArray);
+
+        return eventJson;
+    }
+
+    private static JSONObject pageToJson(EventPage page) {
+        JSONObject pageJson = new JSONObject();
+
+        pageJson.put("page_index", page.getPage_index());
+        pageJson.put("move_type", page.getMove_type());
+        pageJson.put("trigger", page.getTrigger());
+        pageJson.put("through", page.isThrough());
+        pageJson.put("move_frequency", page.getMoveFrequency());
+        pageJson.put("always_on_top", page.isAlwaysOnTop());
+        pageJson.put("walk_anime", page.isWalkAnime());
+        pageJson.put("move_speed", page.getMoveSpeed());
+        pageJson.put("step_anime", page.isStepAnime());
+        pageJson.put("direction_fix", page.isDirectionFix());
+        pageJson.put("graphic", page.getGraphic());
+        pageJson.put("condition", page.getCondition());
+        pageJson.put("move_route", page.getMoveRoute());
+        pageJson.put("list", page.toCommandsJsonArray());
+
+        return pageJson;
+    }
+
+    @Override
+    public String toString() {
+        return "MapDocument [mapId=" + mapId + ", events=" + events.size() + ", modified=" + isModified() + "]";
+    }
+}
@@ -0,0 +1,116 @@
+package psdk.EventEditor.model;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recently opened maps of a project, kept parsed so that going back to one of them does not
+ * read its YAML again. Documents are evicted least recently used first once their estimated
+ * size exceeds the budget, and dropped when their file changes on disk. Documents holding
+ * unsaved edits are never evicted nor dropped.
+ * The budget defaults to 64 MB and can be set in MB with -Dpsdk.editor.mapCacheMB.
+ * get and put read the documents to size them and check for edits, so they must be called
+ * on the EDT like any other access to a document being edited.
+ */
+public class MapDocumentCache {
+
+    public static final long DEFAULT_MAX_BYTES = Long.getLong("psdk.editor.mapCacheMB", 64L) * 1024 * 1024;
+
+    private final long maxBytes;
+    private final Map<String, Entry> cache = new LinkedHashMap<>(8, 0.75f, true);
+    private long cachedBytes = 0;
+
+    private static final class Entry {
+        final MapDocument document;
+        long byteSize;
+
+        Entry(MapDocument document) {
+            this.document = document;
+            this.byteSize = document.estimateSize();
+        }
+    }
+
+    public MapDocumentCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public MapDocumentCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached document of ymlFile, or null when it is not cached or the file has
+     * changed since it was loaded. A document with unsaved edits is returned even then, the
+     * caller has to check {@link MapDocument#isChangedOnDisk()} and ask the user what to keep.
+     */
+    public synchronized MapDocument get(File ymlFile) {
+        String key = ymlFile.getAbsolutePath();
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        MapDocument document = entry.document;
+        if (document.getLastModified() != ymlFile.lastModified()) {
+            if (document.isModified()) {
+                return document;
+            }
+            cache.remove(key);
+            cachedBytes -= entry.byteSize;
+            return null;
+        }
+
+        // Edits may have grown the document since it was sized
+        long byteSize = document.estimateSize();
+        cachedBytes += byteSize - entry.byteSize;
+        entry.byteSize = byteSize;
+        return document;
+    }
+
+    public synchronized void put(MapDocument document) {
+        if (document.getFile() == null) {
+            return;
+        }
+        Entry entry = new Entry(document);
+        Entry previous = cache.put(document.getFile().getAbsolutePath(), entry);
+        if (previous != null) {
+            cachedBytes -= previous.byteSize;
+        }
+        cachedBytes += entry.byteSize;
+        evictIfNeeded(document);
+    }
+
+    public synchronized void remove(File ymlFile) {
+        Entry entry = cache.remove(ymlFile.getAbsolutePath());
+        if (entry != null) {
+            cachedBytes -= entry.byteSize;
+        }
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+        cachedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    private void evictIfNeeded(MapDocument keep) {
+        Iterator<Entry> iterator = cache.values().iterator();
+        while (cachedBytes > maxBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            if (eldest.document != keep && !eldest.document.isModified()) {
+                iterator.remove();
+                cachedBytes -= eldest.byteSize;
+                System.out.println("[MapDocumentCache] Map " + eldest.document.getMapId() + " evicted");
+            }
+        }
+    }
+}
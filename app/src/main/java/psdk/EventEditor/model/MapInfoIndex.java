@@ -0,0 +1,236 @@
+package psdk.EventEditor.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Content of Data/MapInfos.rxdata.yml (name, parent, order... of every map), parsed once per
+ * project and reloaded when the file changes on disk. This is the only place the editor
+ * reads map names from.
+ */
+public class MapInfoIndex {
+
+    public static final String MAP_INFOS_FILE_NAME = "MapInfos.rxdata.yml";
+
+    private static final Map<String, MapInfoIndex> INDEXES = new HashMap<>();
+
+    /**
+     * RPG::MapInfo of one map.
+     */
+    public static final class MapInfo {
+        public final int id;
+        public final String name;
+        public final int parentId;
+        public final int order;
+        public final boolean expanded;
+        public final int scrollX;
+        public final int scrollY;
+
+        MapInfo(int id, String name, int parentId, int order, boolean expanded, int scrollX, int scrollY) {
+            this.id = id;
+            this.name = name;
+            this.parentId = parentId;
+            this.order = order;
+            this.expanded = expanded;
+            this.scrollX = scrollX;
+            this.scrollY = scrollY;
+        }
+    }
+
+    private final File mapInfosFile;
+    // Replaced as a whole on reload, never modified
+    private volatile Map<Integer, MapInfo> infos = Collections.emptyMap();
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    private MapInfoIndex(File mapInfosFile) {
+        this.mapInfosFile = mapInfosFile;
+    }
+
+    /**
+     * Index of the project, loaded and watched on first use.
+     */
+    public static MapInfoIndex forProject(String projectRootPath) {
+        File mapInfosFile = new File(projectRootPath + File.separator + "Data", MAP_INFOS_FILE_NAME);
+        String key = mapInfosFile.getAbsolutePath();
+        synchronized (INDEXES) {
+            MapInfoIndex index = INDEXES.get(key);
+            if (index == null) {
+                index = new MapInfoIndex(mapInfosFile);
+                index.reload();
+                index.startWatching();
+                INDEXES.put(key, index);
+            }
+            return index;
+        }
+    }
+
+    public MapInfo get(int mapId) {
+        return infos.get(mapId);
+    }
+
+    /**
+     * Name of the map, null when the map is not in MapInfos.
+     */
+    public String getName(int mapId) {
+        MapInfo info = infos.get(mapId);
+        return info != null ? info.name : null;
+    }
+
+    public int size() {
+        return infos.size();
+    }
+
+    /**
+     * Every map, in the order of the RMXP map tree.
+     */
+    public List<MapInfo> getAll() {
+        List<MapInfo> all = new ArrayList<>(infos.values());
+        all.sort(Comparator.comparingInt((MapInfo info) -> info.order).thenComparingInt(info -> info.id));
+        return all;
+    }
+
+    /**
+     * Listener called, from the watcher thread, after the index has been reloaded.
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Runnable listener) {
+        changeListeners.remove(listener);
+    }
+
+    private void reload() {
+        if (!mapInfosFile.exists()) {
+            System.err.println("[MapInfoIndex] Fichier " + MAP_INFOS_FILE_NAME + " non trouvé à : " + mapInfosFile.getAbsolutePath());
+            infos = Collections.emptyMap();
+            return;
+        }
+
+        try {
+            infos = parse(mapInfosFile);
+            System.out.println("[MapInfoIndex] " + MAP_INFOS_FILE_NAME + " chargé. " + infos.size() + " maps trouvées.");
+        } catch (IOException | RuntimeException e) {
+            // The previous content is kept, the file may be in the middle of being written
+            System.err.println("[MapInfoIndex] Erreur de lecture de " + MAP_INFOS_FILE_NAME + " : " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    static Map<Integer, MapInfo> parse(File mapInfosFile) throws IOException {
+        Object document;
+        try (Reader reader = Files.newBufferedReader(mapInfosFile.toPath(), StandardCharsets.UTF_8)) {
+            document = MapYmlLoader.createYaml().load(reader);
+        }
+        if (document == null) {
+            return Collections.emptyMap();
+        }
+        if (!(document instanceof Map)) {
+            throw new IOException("Unexpected YAML root in " + mapInfosFile.getName() + ": expected a mapping of RPG::MapInfo.");
+        }
+
+        Map<Integer, MapInfo> parsed = new HashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) document).entrySet()) {
+            int mapId = toInt(entry.getKey(), -1);
+            if (mapId < 0 || !(entry.getValue() instanceof Map)) {
+                System.err.println("[MapInfoIndex] Entrée ignorée dans " + MAP_INFOS_FILE_NAME + " : " + entry.getKey());
+                continue;
+            }
+            Map<?, ?> info = (Map<?, ?>) entry.getValue();
+            parsed.put(mapId, new MapInfo(mapId,
+                toName(info.get("name")),
+                toInt(info.get("parent_id"), 0),
+                toInt(info.get("order"), 0),
+                Boolean.TRUE.equals(info.get("expanded")),
+                toInt(info.get("scroll_x"), 0),
+                toInt(info.get("scroll_y"), 0)));
+        }
+        return Collections.unmodifiableMap(parsed);
+    }
+
+    private void startWatching() {
+        Path dataFolder = mapInfosFile.getParentFile().toPath();
+        if (!Files.isDirectory(dataFolder)) {
+            return;
+        }
+
+        WatchService watchService;
+        try {
+            watchService = dataFolder.getFileSystem().newWatchService();
+            dataFolder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            System.err.println("[MapInfoIndex] Impossible de surveiller " + dataFolder + " : " + e.getMessage());
+            return;
+        }
+
+        Thread watcher = new Thread(() -> watch(watchService), "mapinfos-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watch(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || (context instanceof Path && context.toString().equals(MAP_INFOS_FILE_NAME))) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    reload();
+                    for (Runnable listener : changeListeners) {
+                        listener.run();
+                    }
+                }
+                if (!key.reset()) {
+                    System.err.println("[MapInfoIndex] Dossier Data plus accessible, surveillance arrêtée.");
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String toName(Object value) {
+        if (value instanceof MapYmlLoader.BinaryContent) {
+            return MapYmlStreamReader.decodeBinaryName(((MapYmlLoader.BinaryContent) value).base64);
+        }
+        return value != null ? String.valueOf(value) : "";
+    }
+
+    private static int toInt(Object value, int defaultValue) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+}
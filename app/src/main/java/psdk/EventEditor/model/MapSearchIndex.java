@@ -0,0 +1,139 @@
+package psdk.EventEditor.model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Search over the map list, matching the query anywhere in the map number or name, case
+ * insensitive. Queries of three characters or more only check the maps holding all of their
+ * trigrams, shorter ones scan the precomputed lowercase names.
+ * Immutable once built, so it can be queried from any thread.
+ */
+public class MapSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * One map of the list, with the text shown for it.
+     */
+    public static final class Entry {
+        public final File file;
+        public final String number;
+        public final String name;
+        public final String label;
+        final String lowerNumber;
+        final String lowerName;
+
+        public Entry(File file, String number, String name, String label) {
+            this.file = file;
+            this.number = number;
+            this.name = name;
+            this.label = label;
+            this.lowerNumber = number.toLowerCase();
+            this.lowerName = name.toLowerCase();
+        }
+
+        boolean matches(String lowerQuery) {
+            return lowerNumber.contains(lowerQuery) || lowerName.contains(lowerQuery);
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final List<Entry> entries;
+    // Trigram -> indexes of the entries containing it, ascending
+    private final Map<String, int[]> postings;
+
+    public MapSearchIndex(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+
+        Map<String, List<Integer>> builder = new HashMap<>();
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i < this.entries.size(); i++) {
+            Entry entry = this.entries.get(i);
+            grams.clear();
+            addGrams(entry.lowerNumber, grams);
+            addGrams(entry.lowerName, grams);
+            for (String gram : grams) {
+                builder.computeIfAbsent(gram, key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        this.postings = new HashMap<>(builder.size() * 2);
+        for (Map.Entry<String, List<Integer>> posting : builder.entrySet()) {
+            List<Integer> indexes = posting.getValue();
+            int[] array = new int[indexes.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = indexes.get(i);
+            }
+            postings.put(posting.getKey(), array);
+        }
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Entries whose number or name contains the query, in list order. An empty query matches everything.
+     */
+    public List<Entry> search(String query) {
+        String lowerQuery = query == null ? "" : query.toLowerCase();
+        if (lowerQuery.isEmpty()) {
+            return entries;
+        }
+
+        List<Entry> results = new ArrayList<>();
+        if (lowerQuery.length() < GRAM_LENGTH) {
+            for (Entry entry : entries) {
+                if (entry.matches(lowerQuery)) {
+                    results.add(entry);
+                }
+            }
+            return results;
+        }
+
+        Set<String> queryGrams = new HashSet<>();
+        addGrams(lowerQuery, queryGrams);
+        int[][] lists = new int[queryGrams.size()][];
+        int n = 0;
+        for (String gram : queryGrams) {
+            int[] posting = postings.get(gram);
+            if (posting == null) {
+                return results;
+            }
+            lists[n++] = posting;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+
+        // Candidates hold every trigram, the query itself may still straddle them differently
+        for (int candidate : lists[0]) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.length && inAll; i++) {
+                inAll = Arrays.binarySearch(lists[i], candidate) >= 0;
+            }
+            Entry entry = entries.get(candidate);
+            if (inAll && entry.matches(lowerQuery)) {
+                results.add(entry);
+            }
+        }
+        return results;
+    }
+
+    private static void addGrams(String text, Set<String> grams) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package psdk.EventEditor.model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import libs.json.JSONArray;
+import libs.json.JSONObject;
+
+/**
+ * Binary snapshots of parsed maps, stored in the .psdk-editor-cache folder of the project so
+ * that reopening a map that did not change skips the YAML parsing, even after a restart.
+ * A snapshot is only used while the modification time and size of its YAML file are the
+ * ones it was taken from.
+ *
+ * Layout (big endian): magic, version, YAML mtime and size, the header, the grid as its
+ * dimensions followed by raw shorts, then the event count and one length prefixed record
+ * per event. Strings are an int byte length followed by UTF-8 bytes. JSON values (header,
+ * graphics, conditions, move routes, command parameters) are a type tag followed by the
+ * value, so that numbers come back with their type: a Double 1.0 must stay a Double for the
+ * YAML writer to write it back as 1.0. Event names read from !binary keep their base64
+ * text after the decoded name.
+ */
+public class MapSnapshotStore {
+
+    public static final String CACHE_FOLDER_NAME = ".psdk-editor-cache";
+
+    private static final int MAGIC = 0x50534d43; // "PSMC"
+    private static final int VERSION = 3;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    // Type tags of JSON values
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_FALSE = 1;
+    private static final byte TAG_TRUE = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_FLOAT = 6;
+    private static final byte TAG_BIG_DECIMAL = 7;
+    private static final byte TAG_BIG_INTEGER = 8;
+    private static final byte TAG_STRING = 9;
+    private static final byte TAG_ARRAY = 10;
+    private static final byte TAG_OBJECT = 11;
+
+    private final File cacheFolder;
+
+    public MapSnapshotStore(String projectRootPath) {
+        this.cacheFolder = new File(projectRootPath, CACHE_FOLDER_NAME);
+    }
+
+    private File snapshotFileFor(File ymlFile) {
+        return new File(cacheFolder, ymlFile.getName() + ".bin");
+    }
+
+    /**
+     * Reads the snapshot of ymlFile through a memory mapped buffer. Returns null when there
+     * is none, when it is out of date or when it cannot be read, the YAML has to be parsed then.
+     */
+    public MapDocument load(File ymlFile, int mapId) {
+        File snapshotFile = snapshotFileFor(ymlFile);
+        if (!snapshotFile.isFile()) {
+            return null;
+        }
+
+        long lastModified = ymlFile.lastModified();
+        long length = ymlFile.length();
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                System.out.println("[MapSnapshotStore] Unknown snapshot format, ignored: " + snapshotFile.getName());
+                return null;
+            }
+            if (buffer.getLong() != lastModified || buffer.getLong() != length) {
+                return null;
+            }
+
+            JSONObject header = (JSONObject) readValue(buffer);
+            TileGrid grid = readGrid(buffer);
+            int eventCount = buffer.getInt();
+            List<Event> events = new ArrayList<>(eventCount);
+            for (int i = 0; i < eventCount; i++) {
+                int recordLength = buffer.getInt();
+                int recordEnd = buffer.position() + recordLength;
+                events.add(readEvent(buffer));
+                if (buffer.position() != recordEnd) {
+                    throw new IOException("Event record " + i + " has an unexpected length");
+                }
+            }
+            return new MapDocument(mapId, ymlFile, lastModified, header, grid, events);
+
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[MapSnapshotStore] Could not read snapshot " + snapshotFile.getName() + ": " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Writes the snapshot of a document matching its YAML file, replacing the previous one.
+     * Must not run while the document is being edited.
+     */
+    public boolean store(MapDocument document) {
+        File ymlFile = document.getFile();
+        if (ymlFile == null || !ymlFile.isFile()) {
+            return false;
+        }
+        if (!cacheFolder.isDirectory() && !cacheFolder.mkdirs()) {
+            System.err.println("[MapSnapshotStore] Could not create cache folder: " + cacheFolder.getAbsolutePath());
+            return false;
+        }
+
+        File snapshotFile = snapshotFileFor(ymlFile);
+        File tempFile = new File(cacheFolder, snapshotFile.getName() + ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(tempFile.toPath());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, WRITE_BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(document.getLastModified());
+                out.writeLong(ymlFile.length());
+                writeValue(out, document.getHeader());
+                writeGrid(out, document.getTileGrid());
+
+                out.writeInt(document.getEvents().size());
+                ByteArrayOutputStream record = new ByteArrayOutputStream(1024);
+                DataOutputStream recordOut = new DataOutputStream(record);
+                for (Event event : document.getEvents()) {
+                    record.reset();
+                    writeEvent(recordOut, event);
+                    out.writeInt(record.size());
+                    record.writeTo(out);
+                }
+            }
+            Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[MapSnapshotStore] Could not write snapshot " + snapshotFile.getName() + ": " + e.getMessage());
+            e.printStackTrace();
+            tempFile.delete();
+            return false;
+        }
+    }
+
+    // --- Grid ---
+
+    private static void writeGrid(DataOutputStream out, TileGrid grid) throws IOException {
+        if (grid == null) {
+            out.writeInt(0);
+            return;
+        }
+        out.writeInt(grid.getWidth());
+        out.writeInt(grid.getHeight());
+        out.writeInt(grid.getLayers());
+        short[] tiles = grid.rawTiles();
+        ByteBuffer bytes = ByteBuffer.allocate(tiles.length * Short.BYTES);
+        bytes.asShortBuffer().put(tiles);
+        out.write(bytes.array());
+    }
+
+    private static TileGrid readGrid(ByteBuffer buffer) {
+        int width = buffer.getInt();
+        if (width == 0) {
+            return null;
+        }
+        TileGrid grid = new TileGrid(width, buffer.getInt(), buffer.getInt());
+        short[] tiles = grid.rawTiles();
+        buffer.asShortBuffer().get(tiles);
+        buffer.position(buffer.position() + tiles.length * Short.BYTES);
+        return grid;
+    }
+
+    // --- Events ---
+
+    private static void writeEvent(DataOutputStream out, Event event) throws IOException {
+        out.writeInt(event.getId());
+        out.writeInt(event.getX());
+        out.writeInt(event.getY());
+        writeString(out, event.getName() != null ? event.getName() : "");
+        out.writeBoolean(event.getBinaryName() != null);
+        if (event.getBinaryName() != null) {
+            writeString(out, event.getBinaryName());
+        }
+        out.writeInt(event.getPages().size());
+        for (EventPage page : event.getPages()) {
+            out.writeInt(page.getPage_index());
+            out.writeInt(page.getMove_type());
+            out.writeInt(page.getTrigger());
+            out.writeInt(page.getMoveFrequency());
+            out.writeInt(page.getMoveSpeed());
+            out.writeBoolean(page.isThrough());
+            out.writeBoolean(page.isAlwaysOnTop());
+            out.writeBoolean(page.isWalkAnime());
+            out.writeBoolean(page.isStepAnime());
+            out.writeBoolean(page.isDirectionFix());
+            writeValue(out, page.getGraphic());
+            writeValue(out, page.getCondition());
+            writeValue(out, page.getMoveRoute());
+
+            List<EventCommand> commands = page.getCommands();
+            out.writeInt(commands.size());
+            for (EventCommand command : commands) {
+                out.writeInt(command.getCode());
+                writeString(out, command.getIndent() != null ? command.getIndent() : "0");
+                JSONArray parameters = command.toParametersJsonArray();
+                writeValue(out, parameters != null ? parameters : new JSONArray());
+            }
+        }
+    }
+
+    private static Event readEvent(ByteBuffer buffer) throws IOException {
+        int id = buffer.getInt();
+        int x = buffer.getInt();
+        int y = buffer.getInt();
+        Event event = new Event(id, readString(buffer), x, y);
+        if (buffer.get() != 0) {
+            event.setBinaryName(readString(buffer));
+        }
+        int pageCount = buffer.getInt();
+        for (int i = 0; i < pageCount; i++) {
+            EventPage page = new EventPage();
+            page.setPage_index(buffer.getInt());
+            page.setMove_type(buffer.getInt());
+            page.setTrigger(buffer.getInt());
+            page.setMoveFrequency(buffer.getInt());
+            page.setMoveSpeed(buffer.getInt());
+            page.setThrough(buffer.get() != 0);
+            page.setAlwaysOnTop(buffer.get() != 0);
+            page.setWalkAnime(buffer.get() != 0);
+            page.setStepAnime(buffer.get() != 0);
+            page.setDirectionFix(buffer.get() != 0);
+            page.setGraphic((JSONObject) readValue(buffer));
+            page.setCondition((JSONObject) readValue(buffer));
+            page.setMoveRoute((JSONObject) readValue(buffer));
+
+            int commandCount = buffer.getInt();
+            List<EventCommand> commands = new ArrayList<>(commandCount);
+            for (int j = 0; j < commandCount; j++) {
+                int code = buffer.getInt();
+                String indent = readString(buffer).intern();
+                commands.add(new EventCommand(code, indent, CommandParameters.compact((JSONArray) readValue(buffer))));
+            }
+            page.setCommands(commands);
+            event.addPage(page);
+        }
+        return event;
+    }
+
+    // --- JSON values ---
+
+    /**
+     * Writes a value of a JSONObject or JSONArray. Binary content is an object like any other.
+     */
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null || value == JSONObject.NULL) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(TAG_BIG_DECIMAL);
+            writeString(out, value.toString());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(TAG_BIG_INTEGER);
+            writeString(out, value.toString());
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            out.writeByte(TAG_ARRAY);
+            out.writeInt(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                writeValue(out, array.opt(i));
+            }
+        } else if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            out.writeByte(TAG_OBJECT);
+            out.writeInt(object.length());
+            for (String key : object.keySet()) {
+                writeString(out, key);
+                writeValue(out, object.opt(key));
+            }
+        } else {
+            // The snapshot is not written, the map is parsed from its YAML next time
+            throw new IOException("Unsupported value type: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(ByteBuffer buffer) throws IOException {
+        byte tag = buffer.get();
+        switch (tag) {
+            case TAG_NULL: return JSONObject.NULL;
+            case TAG_FALSE: return Boolean.FALSE;
+            case TAG_TRUE: return Boolean.TRUE;
+            case TAG_INT: return buffer.getInt();
+            case TAG_LONG: return buffer.getLong();
+            case TAG_DOUBLE: return buffer.getDouble();
+            case TAG_FLOAT: return buffer.getFloat();
+            case TAG_BIG_DECIMAL: return new BigDecimal(readString(buffer));
+            case TAG_BIG_INTEGER: return new BigInteger(readString(buffer));
+            case TAG_STRING: return readString(buffer);
+            case TAG_ARRAY: {
+                int length = buffer.getInt();
+                JSONArray array = new JSONArray(length);
+                for (int i = 0; i < length; i++) {
+                    array.put(readValue(buffer));
+                }
+                return array;
+            }
+            case TAG_OBJECT: {
+                int length = buffer.getInt();
+                JSONObject object = new JSONObject();
+                for (int i = 0; i < length; i++) {
+                    String key = readString(buffer);
+                    object.put(key, readValue(buffer));
+                }
+                return object;
+            }
+            default:
+                throw new IOException("Unknown value tag " + tag + " at " + (buffer.position() - 1));
+        }
+    }
+
+    // --- Strings ---
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,308 @@
+package psdk.EventEditor.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.AbstractConstruct;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import libs.json.JSONArray;
+import libs.json.JSONObject;
+
+/**
+ * Loads a MapXXX.rxdata.yml file in-process with SnakeYAML and builds the same
+ * map_data / events JSON structure that yml_to_json.py used to produce.
+ */
+public class MapYmlLoader {
+
+    public static final String BINARY_CONTENT_KEY = "__binary_content__";
+
+    private static final String RUBY_OBJECT_TAG_PREFIX = "!ruby/object:";
+    private static final String BINARY_TAG = "!binary";
+
+    public static JSONObject loadMap(File ymlFile) throws IOException {
+        Object document;
+        try (Reader reader = Files.newBufferedReader(ymlFile.toPath(), StandardCharsets.UTF_8)) {
+            document = createYaml().load(reader);
+        }
+
+        if (!(document instanceof Map)) {
+            throw new IOException("Unexpected YAML root in " + ymlFile.getName() + ": expected a RPG::Map mapping.");
+        }
+        return buildMapJson((Map<?, ?>) document);
+    }
+
+    /**
+     * Creates a SnakeYAML instance understanding the RMXP tags. A new instance is needed
+     * per document since SnakeYAML parsers are not thread safe.
+     */
+    public static Yaml createYaml() {
+        LoaderOptions options = new LoaderOptions();
+        // Large maps easily exceed the default 3 MB limit.
+        options.setCodePointLimit(Integer.MAX_VALUE);
+        options.setMaxAliasesForCollections(Integer.MAX_VALUE);
+        return new Yaml(new RubyObjectConstructor(options));
+    }
+
+    static JSONObject buildMapJson(Map<?, ?> data) {
+        JSONObject output = new JSONObject();
+
+        JSONObject mapData = new JSONObject();
+        mapData.put("tileset_id", toJsonValue(getOrDefault(data, "tileset_id", 0)));
+        mapData.put("width", toJsonValue(getOrDefault(data, "width", 0)));
+        mapData.put("height", toJsonValue(getOrDefault(data, "height", 0)));
+
+        Object table = data.get("data");
+        if (table instanceof Map) {
+            Object tableData = ((Map<?, ?>) table).get("data");
+            if (tableData instanceof String) {
+                JSONObject gridInfo = parseTableText((String) tableData);
+                if (gridInfo != null) {
+                    mapData.put("grid_info", gridInfo);
+                }
+            }
+        }
+        output.put("map_data", mapData);
+
+        output.put("autoplay_bgm", toJsonValue(getOrDefault(data, "autoplay_bgm", false)));
+        output.put("bgm", data.containsKey("bgm") ? toJsonValue(data.get("bgm")) : defaultAudioFile());
+        output.put("autoplay_bgs", toJsonValue(getOrDefault(data, "autoplay_bgs", false)));
+        output.put("bgs", data.containsKey("bgs") ? toJsonValue(data.get("bgs")) : defaultAudioFile());
+        output.put("encounter_list", data.containsKey("encounter_list") ? toJsonValue(data.get("encounter_list")) : new JSONArray());
+        output.put("encounter_step", toJsonValue(getOrDefault(data, "encounter_step", 30)));
+
+        JSONArray events = new JSONArray();
+        Object eventsData = data.get("events");
+        if (eventsData instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) eventsData).entrySet()) {
+                if (entry.getValue() instanceof Map) {
+                    events.put(buildEventJson(entry.getKey(), (Map<?, ?>) entry.getValue()));
+                }
+            }
+        }
+        output.put("events", events);
+
+        return output;
+    }
+
+    private static JSONObject buildEventJson(Object eventId, Map<?, ?> eventData) {
+        JSONObject event = new JSONObject();
+        event.put("id", toJsonValue(eventId));
+        event.put("name", toJsonValue(getOrDefault(eventData, "name", "")));
+        event.put("x", toJsonValue(getOrDefault(eventData, "x", 0)));
+        event.put("y", toJsonValue(getOrDefault(eventData, "y", 0)));
+
+        for (Map.Entry<?, ?> entry : eventData.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            if (!key.equals("id") && !key.equals("name") && !key.equals("x") && !key.equals("y") && !key.equals("pages")) {
+                event.put(key, toJsonValue(entry.getValue()));
+            }
+        }
+
+        JSONArray pages = new JSONArray();
+        Object pagesData = eventData.get("pages");
+        if (pagesData instanceof List) {
+            int pageIndex = 0;
+            for (Object pageData : (List<?>) pagesData) {
+                if (pageData instanceof Map) {
+                    pages.put(buildPageJson(pageIndex, (Map<?, ?>) pageData));
+                }
+                pageIndex++;
+            }
+        }
+        event.put("pages", pages);
+
+        return event;
+    }
+
+    private static JSONObject buildPageJson(int pageIndex, Map<?, ?> pageData) {
+        JSONObject page = new JSONObject();
+        page.put("page_index", pageIndex);
+
+        for (Map.Entry<?, ?> entry : pageData.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            if (!key.equals("list")) {
+                page.put(key, toJsonValue(entry.getValue()));
+            }
+        }
+
+        JSONArray commands = new JSONArray();
+        Object list = pageData.get("list");
+        if (list instanceof List) {
+            for (Object cmd : (List<?>) list) {
+                if (cmd instanceof Map) {
+                    Map<?, ?> cmdData = (Map<?, ?>) cmd;
+                    JSONObject command = new JSONObject();
+                    command.put("code", toJsonValue(getOrDefault(cmdData, "code", 0)));
+                    command.put("indent", toJsonValue(getOrDefault(cmdData, "indent", 0)));
+                    Object parameters = cmdData.get("parameters");
+                    command.put("parameters", parameters instanceof List ? toJsonValue(parameters) : new JSONArray());
+                    commands.put(command);
+                }
+            }
+        }
+        page.put("commands", commands);
+
+        return page;
+    }
+
+    /**
+     * Parses the text form of a RMXP Table ("init W H L", then "z = N" followed by rows)
+     * into the grid_info structure.
+     */
+    static JSONObject parseTableText(String tableText) {
+        String[] lines = tableText.strip().split("\n");
+        if (lines.length == 0) {
+            return null;
+        }
+
+        String[] header = lines[0].trim().split("\\s+");
+        if (header.length != 4 || !header[0].equals("init")) {
+            return null;
+        }
+
+        int width = Integer.parseInt(header[1]);
+        int height = Integer.parseInt(header[2]);
+        int layers = Integer.parseInt(header[3]);
+
+        JSONObject grids = new JSONObject();
+        for (int z = 0; z < layers; z++) {
+            grids.put(String.valueOf(z), new JSONArray());
+        }
+
+        JSONArray currentRows = null;
+        for (int i = 1; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.startsWith("z = ")) {
+                String layerKey = String.valueOf(Integer.parseInt(line.substring(line.indexOf('=') + 1).trim()));
+                currentRows = grids.optJSONArray(layerKey);
+                if (currentRows == null) {
+                    currentRows = new JSONArray();
+                    grids.put(layerKey, currentRows);
+                }
+            } else if (currentRows != null && !line.isEmpty()) {
+                JSONArray row = new JSONArray();
+                for (String token : line.replace('[', ' ').replace(']', ' ').replace(',', ' ').trim().split("\\s+")) {
+                    if (!token.isEmpty()) {
+                        row.put(Integer.parseInt(token));
+                    }
+                }
+                currentRows.put(row);
+            }
+        }
+
+        JSONObject gridInfo = new JSONObject();
+        gridInfo.put("width", width);
+        gridInfo.put("height", height);
+        gridInfo.put("layers", layers);
+        gridInfo.put("grids", grids);
+        return gridInfo;
+    }
+
+    /**
+     * Converts the plain Java values produced by SnakeYAML into libs.json values.
+     */
+    static Object toJsonValue(Object value) {
+        if (value == null) {
+            return JSONObject.NULL;
+        }
+        if (value instanceof BinaryContent) {
+            JSONObject binary = new JSONObject();
+            binary.put(BINARY_CONTENT_KEY, ((BinaryContent) value).base64);
+            return binary;
+        }
+        if (value instanceof Map) {
+            JSONObject json = new JSONObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                json.put(String.valueOf(entry.getKey()), toJsonValue(entry.getValue()));
+            }
+            return json;
+        }
+        if (value instanceof List) {
+            JSONArray json = new JSONArray();
+            for (Object item : (List<?>) value) {
+                json.put(toJsonValue(item));
+            }
+            return json;
+        }
+        if (value instanceof byte[]) {
+            JSONObject binary = new JSONObject();
+            binary.put(BINARY_CONTENT_KEY, Base64.getEncoder().encodeToString((byte[]) value));
+            return binary;
+        }
+        return value;
+    }
+
+    private static Object getOrDefault(Map<?, ?> map, String key, Object defaultValue) {
+        return map.containsKey(key) ? map.get(key) : defaultValue;
+    }
+
+    private static JSONObject defaultAudioFile() {
+        JSONObject audio = new JSONObject();
+        audio.put("name", "");
+        audio.put("volume", 100);
+        audio.put("pitch", 100);
+        return audio;
+    }
+
+    /**
+     * Raw base64 payload of a !binary scalar, kept encoded like the Python loader did.
+     */
+    static final class BinaryContent {
+        final String base64;
+
+        BinaryContent(String base64) {
+            this.base64 = base64;
+        }
+
+        @Override
+        public String toString() {
+            return base64;
+        }
+    }
+
+    /**
+     * SafeConstructor that maps every !ruby/object:* node to its plain mapping/sequence/scalar
+     * and keeps !binary scalars as {@link BinaryContent}.
+     */
+    private static class RubyObjectConstructor extends SafeConstructor {
+
+        RubyObjectConstructor(LoaderOptions options) {
+            super(options);
+            this.yamlMultiConstructors.put(RUBY_OBJECT_TAG_PREFIX, new ConstructRubyObject());
+            this.yamlConstructors.put(new Tag(BINARY_TAG), new ConstructBinary());
+        }
+
+        private class ConstructRubyObject extends AbstractConstruct {
+            @Override
+            public Object construct(Node node) {
+                if (node instanceof MappingNode) {
+                    return constructMapping((MappingNode) node);
+                } else if (node instanceof SequenceNode) {
+                    return constructSequence((SequenceNode) node);
+                }
+                return constructScalar((ScalarNode) node);
+            }
+        }
+
+        private class ConstructBinary extends AbstractConstruct {
+            @Override
+            public Object construct(Node node) {
+                return new BinaryContent(constructScalar((ScalarNode) node));
+            }
+        }
+    }
+}
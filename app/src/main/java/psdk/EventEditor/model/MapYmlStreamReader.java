@@ -0,0 +1,434 @@
+package psdk.EventEditor.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import libs.json.JSONArray;
+import libs.json.JSONObject;
+
+/**
+ * Pull parser over the SnakeYAML event stream of a MapXXX.rxdata.yml file.
+ * Events, pages and commands are built straight into {@link Event}, {@link EventPage}
+ * and {@link EventCommand} and handed out one event at a time, so the map events
+ * never exist as a JSON tree next to the model.
+ */
+public class MapYmlStreamReader {
+
+    private static final String BINARY_TAG = "!binary";
+
+    private final Iterator<org.yaml.snakeyaml.events.Event> stream;
+    private final Resolver resolver = new Resolver();
+    private final Map<String, Object> anchors = new HashMap<>();
+
+    private MapYmlStreamReader(Iterator<org.yaml.snakeyaml.events.Event> stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * Reads a map file in a single pass. Every event is passed to eventConsumer as soon
+     * as it has been parsed; the returned JSON holds everything else (map_data, audio,
+     * encounters) in the layout of {@link MapYmlLoader#loadMap(File)}, without "events".
+     */
+    public static JSONObject readMap(File ymlFile, Consumer<Event> eventConsumer) throws IOException {
+        return readMap(ymlFile, eventConsumer, null);
+    }
+
+    /**
+     * Same as {@link #readMap(File, Consumer)}, but when gridConsumer is given the map Table
+     * is decoded straight into a {@link TileGrid} and the JSON gets no "grid_info".
+     */
+    public static JSONObject readMap(File ymlFile, Consumer<Event> eventConsumer, Consumer<TileGrid> gridConsumer) throws IOException {
+        try (Reader reader = Files.newBufferedReader(ymlFile.toPath(), StandardCharsets.UTF_8)) {
+            MapYmlStreamReader streamReader = new MapYmlStreamReader(MapYmlLoader.createYaml().parse(reader).iterator());
+            return streamReader.readDocument(eventConsumer, gridConsumer);
+        } catch (CancellationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed map YAML " + ymlFile.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static List<Event> readEvents(File ymlFile) throws IOException {
+        List<Event> events = new ArrayList<>();
+        readMap(ymlFile, events::add);
+        return events;
+    }
+
+    private JSONObject readDocument(Consumer<Event> eventConsumer, Consumer<TileGrid> gridConsumer) throws IOException {
+        org.yaml.snakeyaml.events.Event event = next();
+        while (!event.is(org.yaml.snakeyaml.events.Event.ID.MappingStart)) {
+            if (event.is(org.yaml.snakeyaml.events.Event.ID.StreamEnd)) {
+                throw new IOException("Empty YAML document, expected a RPG::Map mapping.");
+            }
+            event = next();
+        }
+
+        Map<Object, Object> mapValues = new LinkedHashMap<>();
+        while (!(event = next()).is(org.yaml.snakeyaml.events.Event.ID.MappingEnd)) {
+            String key = String.valueOf(readValue(event));
+            org.yaml.snakeyaml.events.Event valueStart = next();
+            if (key.equals("events") && valueStart.is(org.yaml.snakeyaml.events.Event.ID.MappingStart)) {
+                readEvents(eventConsumer);
+            } else if (key.equals("data") && gridConsumer != null && valueStart.is(org.yaml.snakeyaml.events.Event.ID.MappingStart)) {
+                TileGrid grid = readTable();
+                if (grid != null) {
+                    gridConsumer.accept(grid);
+                }
+            } else {
+                mapValues.put(key, readValue(valueStart));
+            }
+        }
+
+        JSONObject mapJson = MapYmlLoader.buildMapJson(mapValues);
+        mapJson.remove("events");
+        return mapJson;
+    }
+
+    private TileGrid readTable() {
+        TileGrid grid = null;
+        org.yaml.snakeyaml.events.Event event;
+        while (!(event = next()).is(org.yaml.snakeyaml.events.Event.ID.MappingEnd)) {
+            String key = String.valueOf(readValue(event));
+            org.yaml.snakeyaml.events.Event valueStart = next();
+            if (key.equals("data") && valueStart instanceof ScalarEvent) {
+                ScalarEvent scalar = (ScalarEvent) valueStart;
+                if (BINARY_TAG.equals(scalar.getTag())) {
+                    grid = TableDecoder.decodeBinary(Base64.getMimeDecoder().decode(scalar.getValue()));
+                } else {
+                    grid = TableDecoder.decodeText(scalar.getValue());
+                }
+            } else {
+                readValue(valueStart);
+            }
+        }
+        return grid;
+    }
+
+    private void readEvents(Consumer<Event> eventConsumer) {
+        org.yaml.snakeyaml.events.Event event;
+        while (!(event = next()).is(org.yaml.snakeyaml.events.Event.ID.MappingEnd)) {
+            int eventId = toInt(readValue(event), 0);
+            org.yaml.snakeyaml.events.Event valueStart = next();
+            if (valueStart.is(org.yaml.snakeyaml.events.Event.ID.MappingStart)) {
+                eventConsumer.accept(readEvent(eventId));
+            } else {
+                System.err.println("Warning: event " + eventId + " is not a mapping, skipped.");
+                readValue(valueStart);
+            }
+        }
+    }
+
+    private Event readEvent(int eventId) {
+        String name = "";
+        String binaryName = null;
+        int x = 0;
+        int y = 0;
+        List<EventPage> pages = new ArrayList<>();
+
+        org.yaml.snakeyaml.events.Event event;
+        while (!(event = next()).is(org.yaml.snakeyaml.events.Event.ID.MappingEnd)) {
+            String key = String.valueOf(readValue(event));
+            org.yaml.snakeyaml.events.Event valueStart = next();
+            switch (key) {
+                case "name":
+                    Object nameValue = readValue(valueStart);
+                    if (nameValue instanceof MapYmlLoader.BinaryContent) {
+                        binaryName = ((MapYmlLoader.BinaryContent) nameValue).base64;
+                    }
+                    name = toName(nameValue);
+                    break;
+                case "x":
+                    x = toInt(readValue(valueStart), 0);
+                    break;
+                case "y":
+                    y = toInt(readValue(valueStart), 0);
+                    break;
+                case "pages":
+                    if (valueStart.is(org.yaml.snakeyaml.events.Event.ID.SequenceStart)) {
+                        while (!(event = next()).is(org.yaml.snakeyaml.events.Event.ID.SequenceEnd)) {
+                            if (event.is(org.yaml.snakeyaml.events.Event.ID.MappingStart)) {
+                                pages.add(readPage(pages.size()));
+                            } else {
+                                readValue(event);
+                            }
+                        }
+                    } else {
+                        readValue(valueStart);
+                    }
+                    break;
+                default:
+                    // id is the mapping key already, other attributes are not part of the model.
+                    readValue(valueStart);
+            }
+        }
+
+        Event result = new Event(eventId, name, x, y);
+        result.setBinaryName(binaryName);
+        result.setPages(pages);
+        return result;
+    }
+
+    private EventPage readPage(int pageIndex) {
+        EventPage page = new EventPage();
+        page.setPage_index(pageIndex);
+
+        org.yaml.snakeyaml.events.Event event;
+        while (!(event = next()).is(org.yaml.snakeyaml.events.Event.ID.MappingEnd)) {
+            String key = String.valueOf(readValue(event));
+            org.yaml.snakeyaml.events.Event valueStart = next();
+            if (key.equals("list")) {
+                if (valueStart.is(org.yaml.snakeyaml.events.Event.ID.SequenceStart)) {
+                    page.setCommands(readCommands());
+                } else {
+                    readValue(valueStart);
+                }
+                continue;
+            }
+
+            Object value = readValue(valueStart);
+            switch (key) {
+                case "move_type": page.setMove_type(toInt(value, 0)); break;
+                case "trigger": page.setTrigger(toInt(value, 0)); break;
+                case "through": page.setThrough(toBoolean(value, false)); break;
+                case "move_frequency": page.setMoveFrequency(toInt(value, 3)); break;
+                case "always_on_top": page.setAlwaysOnTop(toBoolean(value, false)); break;
+                case "walk_anime": page.setWalkAnime(toBoolean(value, true)); break;
+                case "move_speed": page.setMoveSpeed(toInt(value, 3)); break;
+                case "step_anime": page.setStepAnime(toBoolean(value, false)); break;
+                case "direction_fix": page.setDirectionFix(toBoolean(value, false)); break;
+                case "graphic":
+                    if (value instanceof Map) {
+                        page.setGraphic((JSONObject) MapYmlLoader.toJsonValue(value));
+                    }
+                    break;
+                case "condition":
+                    if (value instanceof Map) {
+                        page.setCondition((JSONObject) MapYmlLoader.toJsonValue(value));
+                    }
+                    break;
+                case "move_route":
+                    if (value instanceof Map) {
+                        page.setMoveRoute((JSONObject) MapYmlLoader.toJsonValue(value));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return page;
+    }
+
+    private List<EventCommand> readCommands() {
+        List<EventCommand> commands = new ArrayList<>();
+        org.yaml.snakeyaml.events.Event event;
+        while (!(event = next()).is(org.yaml.snakeyaml.events.Event.ID.SequenceEnd)) {
+            if (!event.is(org.yaml.snakeyaml.events.Event.ID.MappingStart)) {
+                readValue(event);
+                continue;
+            }
+
+            int code = 0;
+            int indent = 0;
+            JSONArray parameters = null;
+            while (!(event = next()).is(org.yaml.snakeyaml.events.Event.ID.MappingEnd)) {
+                String key = String.valueOf(readValue(event));
+                Object value = readValue(next());
+                if (key.equals("code")) {
+                    code = toInt(value, 0);
+                } else if (key.equals("indent")) {
+                    indent = toInt(value, 0);
+                } else if (key.equals("parameters") && value instanceof List) {
+                    parameters = (JSONArray) MapYmlLoader.toJsonValue(value);
+                }
+            }
+            commands.add(new EventCommand(code, String.valueOf(indent), CommandParameters.compact(parameters)));
+        }
+        return commands;
+    }
+
+    /**
+     * Reads the node starting at the given event into plain Java values, the same shapes
+     * MapYmlLoader gets from SnakeYAML (maps, lists, scalars, BinaryContent).
+     */
+    private Object readValue(org.yaml.snakeyaml.events.Event start) {
+        if (start instanceof AliasEvent) {
+            String anchor = ((AliasEvent) start).getAnchor();
+            if (!anchors.containsKey(anchor)) {
+                throw new IllegalStateException("Unknown YAML alias *" + anchor);
+            }
+            return anchors.get(anchor);
+        }
+
+        if (start.is(org.yaml.snakeyaml.events.Event.ID.MappingStart)) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+            registerAnchor(start, map);
+            org.yaml.snakeyaml.events.Event event;
+            while (!(event = next()).is(org.yaml.snakeyaml.events.Event.ID.MappingEnd)) {
+                Object key = readValue(event);
+                map.put(key, readValue(next()));
+            }
+            return map;
+        } else if (start.is(org.yaml.snakeyaml.events.Event.ID.SequenceStart)) {
+            List<Object> list = new ArrayList<>();
+            registerAnchor(start, list);
+            org.yaml.snakeyaml.events.Event event;
+            while (!(event = next()).is(org.yaml.snakeyaml.events.Event.ID.SequenceEnd)) {
+                list.add(readValue(event));
+            }
+            return list;
+        } else if (start instanceof ScalarEvent) {
+            Object value = resolveScalar((ScalarEvent) start);
+            registerAnchor(start, value);
+            return value;
+        }
+        throw new IllegalStateException("Unexpected YAML event " + start);
+    }
+
+    private void registerAnchor(org.yaml.snakeyaml.events.Event event, Object value) {
+        String anchor = ((NodeEvent) event).getAnchor();
+        if (anchor != null) {
+            anchors.put(anchor, value);
+        }
+    }
+
+    private Object resolveScalar(ScalarEvent scalar) {
+        String text = scalar.getValue();
+        String explicitTag = scalar.getTag();
+        if (BINARY_TAG.equals(explicitTag)) {
+            return new MapYmlLoader.BinaryContent(text);
+        }
+        if (explicitTag != null && !explicitTag.equals("!")) {
+            return text;
+        }
+
+        Tag tag = resolver.resolve(NodeId.scalar, text, scalar.getImplicit().canOmitTagInPlainScalar());
+        if (tag.equals(Tag.NULL)) {
+            return null;
+        }
+        if (tag.equals(Tag.BOOL)) {
+            String lower = text.toLowerCase();
+            return lower.equals("true") || lower.equals("yes") || lower.equals("on");
+        }
+        if (tag.equals(Tag.INT)) {
+            Object number = parseInt(text);
+            return number != null ? number : text;
+        }
+        if (tag.equals(Tag.FLOAT)) {
+            return parseFloat(text);
+        }
+        return text;
+    }
+
+    private static Object parseInt(String text) {
+        String value = text.replace("_", "");
+        int sign = 1;
+        if (value.startsWith("-") || value.startsWith("+")) {
+            sign = value.startsWith("-") ? -1 : 1;
+            value = value.substring(1);
+        }
+        if (value.indexOf(':') >= 0) {
+            // Base 60 integers are valid YAML 1.1 but never written by RMXP.
+            return null;
+        }
+
+        BigInteger number;
+        if (value.startsWith("0b")) {
+            number = new BigInteger(value.substring(2), 2);
+        } else if (value.startsWith("0x")) {
+            number = new BigInteger(value.substring(2), 16);
+        } else if (value.length() > 1 && value.startsWith("0")) {
+            number = new BigInteger(value.substring(1), 8);
+        } else {
+            number = new BigInteger(value);
+        }
+        if (sign < 0) {
+            number = number.negate();
+        }
+
+        if (number.bitLength() < Integer.SIZE) {
+            return number.intValue();
+        } else if (number.bitLength() < Long.SIZE) {
+            return number.longValue();
+        }
+        return number;
+    }
+
+    private static Object parseFloat(String text) {
+        String value = text.replace("_", "").toLowerCase();
+        if (value.endsWith(".inf")) {
+            return value.startsWith("-") ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        if (value.equals(".nan")) {
+            return Double.NaN;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return text;
+        }
+    }
+
+    private org.yaml.snakeyaml.events.Event next() {
+        if (!stream.hasNext()) {
+            throw new IllegalStateException("Unexpected end of YAML stream");
+        }
+        return stream.next();
+    }
+
+    private static String toName(Object value) {
+        if (value instanceof MapYmlLoader.BinaryContent) {
+            return decodeBinaryName(((MapYmlLoader.BinaryContent) value).base64);
+        }
+        return value != null ? String.valueOf(value) : "";
+    }
+
+    /**
+     * Event names containing non ASCII characters are stored as !binary UTF-8 by RMXP.
+     */
+    static String decodeBinaryName(String base64) {
+        try {
+            return new String(Base64.getMimeDecoder().decode(base64), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Warning: invalid !binary event name, kept encoded: " + e.getMessage());
+            return base64;
+        }
+    }
+
+    private static int toInt(Object value, int defaultValue) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+
+    private static boolean toBoolean(Object value, boolean defaultValue) {
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+}
@@ -0,0 +1,841 @@
+package psdk.EventEditor.model;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import libs.json.JSONArray;
+import libs.json.JSONObject;
+
+/**
+ * Writes a map back to the RMXP YAML dialect, either from a {@link MapDocument} or from the
+ * map JSON, following the layout json_to_yml.py used to produce, without any temp file or
+ * Python process.
+ */
+public class MapYmlWriter {
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private static final List<String> PAGE_PROPERTIES_ORDER = Arrays.asList(
+        "through", "move_frequency", "move_type", "trigger", "always_on_top",
+        "walk_anime", "move_speed", "step_anime", "direction_fix");
+
+    // JSONObject does not keep key order, so RMXP objects are written in the order RMXP itself uses.
+    private static final List<String> AUDIO_FILE_ORDER = Arrays.asList("volume", "name", "pitch");
+    private static final List<String> GRAPHIC_ORDER = Arrays.asList(
+        "character_hue", "character_name", "pattern", "opacity", "tile_id", "blend_type", "direction");
+    private static final List<String> CONDITION_ORDER = Arrays.asList(
+        "switch1_id", "switch2_id", "variable_value", "switch1_valid", "variable_id",
+        "variable_valid", "self_switch_valid", "switch2_valid", "self_switch_ch");
+
+    // Strings starting with one of these are written between double quotes.
+    private static final String SPECIAL_START_CHARS = "!@#%^&*()-+={}[]|\\:;\"'<>,.?/~`$§";
+
+    private static final Pattern IMPLICIT_NON_STRING = Pattern.compile(
+        "yes|Yes|YES|no|No|NO|true|True|TRUE|false|False|FALSE|on|On|ON|off|Off|OFF"
+        + "|~|null|Null|NULL|<<|="
+        + "|[-+]?0b[0-1_]+|[-+]?0[0-7_]+|[-+]?(?:0|[1-9][0-9_]*)|[-+]?0x[0-9a-fA-F_]+"
+        + "|[-+]?[1-9][0-9_]*(?::[0-5]?[0-9])+"
+        + "|[-+]?(?:[0-9][0-9_]*)\\.[0-9_]*(?:[eE][-+][0-9]+)?|\\.[0-9_]+(?:[eE][-+][0-9]+)?"
+        + "|[-+]?[0-9][0-9_]*(?::[0-5]?[0-9])+\\.[0-9_]*|[-+]?\\.(?:inf|Inf|INF)|\\.(?:nan|NaN|NAN)"
+        + "|[0-9]{4}-[0-9]{2}-[0-9]{2}"
+        + "|[0-9]{4}-[0-9]{1,2}-[0-9]{1,2}(?:[Tt]|[ \\t]+)[0-9]{1,2}:[0-9]{2}:[0-9]{2}(?:\\.[0-9]*)?"
+        + "(?:[ \\t]*(?:Z|[-+][0-9]{1,2}(?::[0-9]{2})?))?");
+
+    private final Writer out;
+    private final TileGrid tileGrid;
+    private int anchorCounter = 1;
+
+    // Anchors given to the move commands of the last Set Move Route of the page being
+    // written, so that the following 509 commands can refer to them like RMXP does.
+    private List<Integer> moveRouteAnchors = new ArrayList<>();
+    private int movesSinceRoute;
+
+    private MapYmlWriter(Writer out, TileGrid tileGrid) {
+        this.out = out;
+        this.tileGrid = tileGrid;
+    }
+
+    public static void writeMap(JSONObject mapDataJson, File outputFile) throws IOException {
+        writeMap(mapDataJson, null, outputFile);
+    }
+
+    /**
+     * Writes the map, taking the tiles from tileGrid when given instead of map_data.grid_info.
+     */
+    public static void writeMap(JSONObject mapDataJson, TileGrid tileGrid, File outputFile) throws IOException {
+        try (Writer writer = openWriter(outputFile)) {
+            writeMap(mapDataJson, tileGrid, writer);
+        }
+    }
+
+    public static void writeMap(JSONObject mapDataJson, TileGrid tileGrid, Writer writer) throws IOException {
+        new MapYmlWriter(writer, tileGrid).writeDocument(mapDataJson);
+        writer.flush();
+    }
+
+    /**
+     * Writes an open map straight from its model, events are not converted to JSON first.
+     */
+    public static void writeMap(MapDocument document, File outputFile) throws IOException {
+        try (Writer writer = openWriter(outputFile)) {
+            writeMap(document, writer);
+        }
+    }
+
+    public static void writeMap(MapDocument document, Writer writer) throws IOException {
+        new MapYmlWriter(writer, document.getTileGrid()).writeDocument(document);
+        writer.flush();
+    }
+
+    private static Writer openWriter(File outputFile) throws IOException {
+        FileChannel channel = FileChannel.open(outputFile.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1), WRITE_BUFFER_SIZE);
+    }
+
+    private void writeDocument(JSONObject json) throws IOException {
+        writeHeader(json);
+        line("events:");
+        writeEvents(json.optJSONArray("events"));
+    }
+
+    private void writeDocument(MapDocument document) throws IOException {
+        writeHeader(document.getHeader());
+        line("events:");
+        writeEvents(document.getEvents());
+    }
+
+    private void writeHeader(JSONObject json) throws IOException {
+        JSONObject mapData = json.optJSONObject("map_data");
+        if (mapData == null) {
+            mapData = new JSONObject();
+        }
+
+        line("--- !ruby/object:RPG::Map");
+        line("tileset_id: " + pythonStr(mapData.opt("tileset_id"), 0));
+        line("width: " + pythonStr(mapData.opt("width"), 0));
+        line("height: " + pythonStr(mapData.opt("height"), 0));
+        line("autoplay_bgm: " + pythonStr(json.opt("autoplay_bgm"), false).toLowerCase());
+        line("bgm: !ruby/object:RPG::AudioFile");
+        writeDumpedMapping(audioFileOrDefault(json.opt("bgm")), AUDIO_FILE_ORDER, "  ");
+        line("autoplay_bgs: " + pythonStr(json.opt("autoplay_bgs"), false).toLowerCase());
+        line("bgs: !ruby/object:RPG::AudioFile");
+        writeDumpedMapping(audioFileOrDefault(json.opt("bgs")), AUDIO_FILE_ORDER, "  ");
+        Object encounterList = json.opt("encounter_list");
+        line("encounter_list: " + pythonRepr(encounterList != null ? encounterList : new JSONArray()));
+        line("encounter_step: " + pythonStr(json.opt("encounter_step"), 30));
+
+        line("data: !ruby/object:Table");
+        line("  data: |");
+        if (tileGrid != null) {
+            writeTable(tileGrid);
+        } else {
+            writeTable(mapData.optJSONObject("grid_info"));
+        }
+    }
+
+    // --- Table ---
+
+    private void writeTable(JSONObject gridInfo) throws IOException {
+        if (gridInfo == null || gridInfo.isEmpty()) {
+            System.err.println("Warning: 'grid_info' not found in map data, using empty default grid for 'data'.");
+            writeEmptyTable(20, 20, 3);
+            return;
+        }
+
+        int width = gridInfo.optInt("width", 0);
+        int height = gridInfo.optInt("height", 0);
+        int layers = gridInfo.optInt("layers", 3);
+        JSONObject grids = gridInfo.optJSONObject("grids");
+
+        line("    init " + width + " " + height + " " + layers);
+        StringBuilder row = new StringBuilder(width * 4);
+        for (int z = 0; z < layers; z++) {
+            line("    z = " + z);
+            List<Object> flat = flattenLayer(grids != null ? grids.opt(String.valueOf(z)) : null, width * height);
+
+            for (int y = 0; y < height; y++) {
+                int start = y * width;
+                row.setLength(0);
+                row.append("    ");
+                if (start + width <= flat.size()) {
+                    for (int x = 0; x < width; x++) {
+                        if (x > 0) {
+                            row.append(' ');
+                        }
+                        row.append(pythonStr(flat.get(start + x)));
+                    }
+                } else {
+                    System.err.println("Warning: Insufficient grid data for layer " + z + ", row " + y + ". Padding with zeros.");
+                    appendZeroRow(row, width);
+                }
+                line(row.toString());
+            }
+        }
+    }
+
+    private void writeTable(TileGrid grid) throws IOException {
+        int width = grid.getWidth();
+        line("    init " + width + " " + grid.getHeight() + " " + grid.getLayers());
+        StringBuilder row = new StringBuilder(width * 4);
+        for (int z = 0; z < grid.getLayers(); z++) {
+            line("    z = " + z);
+            for (int y = 0; y < grid.getHeight(); y++) {
+                row.setLength(0);
+                row.append("    ");
+                for (int x = 0; x < width; x++) {
+                    if (x > 0) {
+                        row.append(' ');
+                    }
+                    row.append(grid.getTile(x, y, z));
+                }
+                line(row.toString());
+            }
+        }
+    }
+
+    private static List<Object> flattenLayer(Object layer, int fallbackSize) {
+        List<Object> flat = new ArrayList<>(Math.max(fallbackSize, 0));
+        if (layer instanceof JSONArray) {
+            JSONArray rows = (JSONArray) layer;
+            for (int i = 0; i < rows.length(); i++) {
+                Object item = rows.opt(i);
+                if (item instanceof JSONArray) {
+                    JSONArray cells = (JSONArray) item;
+                    for (int j = 0; j < cells.length(); j++) {
+                        flat.add(cells.opt(j));
+                    }
+                } else {
+                    flat.add(item);
+                }
+            }
+        } else {
+            System.err.println("Warning: Unexpected data type for a layer grid. Filling with zeros.");
+            for (int i = 0; i < fallbackSize; i++) {
+                flat.add(0);
+            }
+        }
+        return flat;
+    }
+
+    private void writeEmptyTable(int width, int height, int layers) throws IOException {
+        line("    init " + width + " " + height + " " + layers);
+        StringBuilder row = new StringBuilder("    ");
+        appendZeroRow(row, width);
+        String zeroRow = row.toString();
+        for (int z = 0; z < layers; z++) {
+            line("    z = " + z);
+            for (int y = 0; y < height; y++) {
+                line(zeroRow);
+            }
+        }
+    }
+
+    private static void appendZeroRow(StringBuilder row, int width) {
+        for (int x = 0; x < width; x++) {
+            row.append(x > 0 ? " 0" : "0");
+        }
+    }
+
+    // --- Events ---
+
+    private void writeEvents(JSONArray events) throws IOException {
+        if (events == null) {
+            return;
+        }
+
+        TreeMap<Integer, JSONObject> eventsById = new TreeMap<>();
+        for (int i = 0; i < events.length(); i++) {
+            JSONObject event = events.optJSONObject(i);
+            if (event != null && event.has("id")) {
+                eventsById.put(event.optInt("id"), event);
+            }
+        }
+
+        for (Map.Entry<Integer, JSONObject> entry : eventsById.entrySet()) {
+            writeEvent(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void writeEvents(List<Event> events) throws IOException {
+        TreeMap<Integer, Event> eventsById = new TreeMap<>();
+        for (Event event : events) {
+            eventsById.put(event.getId(), event);
+        }
+
+        for (Event event : eventsById.values()) {
+            line("  " + event.getId() + ": !ruby/object:RPG::Event");
+            line("    id: " + event.getId());
+            if (event.getBinaryName() != null) {
+                line("    name: !binary |-");
+                line("      " + event.getBinaryName());
+            } else {
+                line("    name: " + formatYamlString(event.getName() != null ? event.getName() : ""));
+            }
+            line("    x: " + event.getX());
+            line("    y: " + event.getY());
+            line("    pages:");
+            for (EventPage page : event.getPages()) {
+                writePage(page);
+            }
+        }
+    }
+
+    private void writeEvent(int eventId, JSONObject event) throws IOException {
+        line("  " + eventId + ": !ruby/object:RPG::Event");
+
+        JSONObject extraAttributes = new JSONObject();
+        for (String key : event.keySet()) {
+            if (!key.equals("pages") && !key.equals("id") && !key.equals("name") && !key.equals("x") && !key.equals("y")) {
+                extraAttributes.put(key, event.get(key));
+            }
+        }
+        writeDumpedMapping(extraAttributes, null, "    ");
+
+        line("    id: " + pythonStr(event.opt("id"), 0));
+        Object name = event.opt("name");
+        if (isBinaryContent(name)) {
+            line("    name: !binary |-");
+            line("      " + binaryContent(name));
+        } else {
+            line("    name: " + formatYamlString(name != null ? name : ""));
+        }
+        line("    x: " + pythonStr(event.opt("x"), 0));
+        line("    y: " + pythonStr(event.opt("y"), 0));
+
+        line("    pages:");
+        JSONArray pages = event.optJSONArray("pages");
+        if (pages != null) {
+            for (int i = 0; i < pages.length(); i++) {
+                JSONObject page = pages.optJSONObject(i);
+                if (page != null) {
+                    writePage(page);
+                }
+            }
+        }
+    }
+
+    private void writePage(JSONObject page) throws IOException {
+        JSONArray commands = page.has("commands") ? page.optJSONArray("commands") : page.optJSONArray("list");
+
+        line("    - !ruby/object:RPG::Event::Page");
+        for (String property : PAGE_PROPERTIES_ORDER) {
+            if (page.has(property)) {
+                Object value = page.get(property);
+                line("      " + property + ": " + (value instanceof Boolean ? value.toString() : pythonStr(value)));
+            }
+        }
+
+        writePageObjects(page.optJSONObject("graphic"), page.optJSONObject("condition"), page.optJSONObject("move_route"));
+
+        if (commands != null && commands.length() > 0) {
+            line("      list:");
+            writeCommands(commands);
+        }
+    }
+
+    private void writePage(EventPage page) throws IOException {
+        line("    - !ruby/object:RPG::Event::Page");
+        line("      through: " + page.isThrough());
+        line("      move_frequency: " + page.getMoveFrequency());
+        line("      move_type: " + page.getMove_type());
+        line("      trigger: " + page.getTrigger());
+        line("      always_on_top: " + page.isAlwaysOnTop());
+        line("      walk_anime: " + page.isWalkAnime());
+        line("      move_speed: " + page.getMoveSpeed());
+        line("      step_anime: " + page.isStepAnime());
+        line("      direction_fix: " + page.isDirectionFix());
+
+        writePageObjects(page.getGraphic(), page.getCondition(), page.getMoveRoute());
+
+        List<EventCommand> commands = page.getCommands();
+        if (!commands.isEmpty()) {
+            line("      list:");
+            resetMoveRouteAnchors();
+            for (EventCommand command : commands) {
+                writeCommand(command.getCode(), toInt(command.getIndent(), 0), command.toParametersJsonArray());
+            }
+        }
+    }
+
+    private void writePageObjects(JSONObject graphic, JSONObject condition, JSONObject moveRoute) throws IOException {
+        if (graphic != null && !graphic.isEmpty()) {
+            line("      graphic: !ruby/object:RPG::Event::Page::Graphic");
+            for (String key : orderedKeys(graphic, GRAPHIC_ORDER)) {
+                Object value = graphic.get(key);
+                line("        " + key + ": " + (value instanceof String ? formatYamlString(value) : pythonStr(value)));
+            }
+        }
+
+        if (condition != null && !condition.isEmpty()) {
+            line("      condition: !ruby/object:RPG::Event::Page::Condition");
+            writeDumpedMapping(condition, CONDITION_ORDER, "        ");
+        }
+
+        if (moveRoute != null && !moveRoute.isEmpty()) {
+            line("      move_route: !ruby/object:RPG::MoveRoute");
+            line("        repeat: " + pythonStr(moveRoute.opt("repeat"), false).toLowerCase());
+            line("        skippable: " + pythonStr(moveRoute.opt("skippable"), false).toLowerCase());
+            line("        list:");
+            JSONArray moveCommands = moveRoute.optJSONArray("list");
+            if (moveCommands != null) {
+                for (int i = 0; i < moveCommands.length(); i++) {
+                    JSONObject moveCommand = moveCommands.optJSONObject(i);
+                    line("        - !ruby/object:RPG::MoveCommand");
+                    writeMoveCommandBody(moveCommand != null ? moveCommand : new JSONObject(), "          ");
+                }
+            }
+        }
+    }
+
+    private void writeMoveCommandBody(JSONObject moveCommand, String indent) throws IOException {
+        line(indent + "code: " + pythonStr(moveCommand.opt("code"), 0));
+        JSONArray parameters = moveCommand.optJSONArray("parameters");
+        if (parameters != null && parameters.length() > 0) {
+            line(indent + "parameters:");
+            for (int i = 0; i < parameters.length(); i++) {
+                line(indent + "- " + pythonStr(parameters.opt(i)));
+            }
+        } else {
+            line(indent + "parameters: []");
+        }
+    }
+
+    // --- Commands ---
+
+    private void writeCommands(JSONArray commands) throws IOException {
+        resetMoveRouteAnchors();
+        for (int i = 0; i < commands.length(); i++) {
+            JSONObject command = commands.optJSONObject(i);
+            if (command != null) {
+                writeCommand(toInt(command.opt("code"), 0), toInt(command.opt("indent"), 0), command.optJSONArray("parameters"));
+            }
+        }
+    }
+
+    private void resetMoveRouteAnchors() {
+        moveRouteAnchors = new ArrayList<>();
+        movesSinceRoute = 0;
+    }
+
+    private void writeCommand(int code, int indent, JSONArray parameters) throws IOException {
+        line("      - !ruby/object:RPG::EventCommand");
+        if (code == 209 && parameters != null && parameters.length() >= 2 && parameters.opt(1) instanceof JSONObject) {
+            moveRouteAnchors = writeSetMoveRouteParameters(parameters);
+            movesSinceRoute = 0;
+        } else if (code == 509) {
+            writeMoveCommandParameters(parameters, movesSinceRoute < moveRouteAnchors.size() ? moveRouteAnchors.get(movesSinceRoute) : null);
+            movesSinceRoute++;
+        } else {
+            writeCommandParameters(parameters);
+        }
+        line("        indent: " + indent);
+        line("        code: " + code);
+
+        if (code != 209 && code != 509) {
+            moveRouteAnchors = new ArrayList<>();
+        }
+    }
+
+    private List<Integer> writeSetMoveRouteParameters(JSONArray parameters) throws IOException {
+        JSONObject moveRoute = parameters.getJSONObject(1);
+        List<Integer> anchors = new ArrayList<>();
+
+        line("        parameters:");
+        line("        - " + pythonStr(parameters.opt(0)));
+        line("        - !ruby/object:RPG::MoveRoute");
+        line("          repeat: " + pythonStr(moveRoute.opt("repeat"), false).toLowerCase());
+        line("          skippable: " + pythonStr(moveRoute.opt("skippable"), false).toLowerCase());
+        line("          list:");
+
+        JSONArray moveCommands = moveRoute.optJSONArray("list");
+        if (moveCommands != null) {
+            for (int i = 0; i < moveCommands.length(); i++) {
+                JSONObject moveCommand = moveCommands.optJSONObject(i);
+                // Every move command except the final "0" terminator is anchored.
+                if (i < moveCommands.length() - 1) {
+                    int anchor = anchorCounter++;
+                    anchors.add(anchor);
+                    line("          - &" + anchor + " !ruby/object:RPG::MoveCommand");
+                } else {
+                    line("          - !ruby/object:RPG::MoveCommand");
+                }
+                writeMoveCommandBody(moveCommand != null ? moveCommand : new JSONObject(), "            ");
+            }
+        }
+        return anchors;
+    }
+
+    private void writeMoveCommandParameters(JSONArray parameters, Integer anchor) throws IOException {
+        line("        parameters:");
+        if (anchor != null) {
+            line("        - *" + anchor);
+        } else if (parameters != null && parameters.length() > 0) {
+            for (int i = 0; i < parameters.length(); i++) {
+                Object parameter = parameters.opt(i);
+                if (isMoveCommand(parameter)) {
+                    line("        - !ruby/object:RPG::MoveCommand");
+                    writeMoveCommandBody((JSONObject) parameter, "          ");
+                } else {
+                    line("        - " + pythonStr(parameter));
+                }
+            }
+        } else {
+            line("        - []");
+        }
+    }
+
+    private void writeCommandParameters(JSONArray parameters) throws IOException {
+        if (parameters == null || parameters.length() == 0) {
+            line("        parameters: []");
+            return;
+        }
+
+        line("        parameters:");
+        for (int i = 0; i < parameters.length(); i++) {
+            Object parameter = parameters.opt(i);
+            if (parameter instanceof JSONObject && hasKeys((JSONObject) parameter, "red", "green", "blue", "alpha")) {
+                JSONObject color = (JSONObject) parameter;
+                line("        - !ruby/object:Color");
+                line("          red: " + pythonStr(color.opt("red")));
+                line("          green: " + pythonStr(color.opt("green")));
+                line("          blue: " + pythonStr(color.opt("blue")));
+                line("          alpha: " + pythonStr(color.opt("alpha")));
+            } else if (parameter instanceof JSONObject && hasKeys((JSONObject) parameter, "name", "volume", "pitch")) {
+                JSONObject audio = (JSONObject) parameter;
+                line("        - !ruby/object:RPG::AudioFile");
+                line("          name: " + pythonStr(audio.opt("name")));
+                line("          volume: " + pythonStr(audio.opt("volume")));
+                line("          pitch: " + pythonStr(audio.opt("pitch")));
+            } else if (isBinaryContent(parameter)) {
+                line("        - !binary |-");
+                line("          " + binaryContent(parameter));
+            } else if (isMoveCommand(parameter)) {
+                line("        - !ruby/object:RPG::MoveCommand");
+                writeMoveCommandBody((JSONObject) parameter, "          ");
+            } else if (parameter instanceof JSONArray) {
+                JSONArray items = (JSONArray) parameter;
+                if (items.length() == 0) {
+                    line("        - []");
+                }
+                for (int j = 0; j < items.length(); j++) {
+                    Object item = items.opt(j);
+                    String formatted = isBinaryContent(item) ? "!binary " + binaryContent(item)
+                        : item instanceof String ? formatYamlString(item) : pythonStr(item);
+                    line((j == 0 ? "        - - " : "          - ") + formatted);
+                }
+            } else if (parameter instanceof String) {
+                line("        - " + formatYamlString(parameter));
+            } else {
+                line("        - " + pythonStr(parameter));
+            }
+        }
+    }
+
+    // --- yaml.dump style mappings (bgm, bgs, condition, extra event attributes) ---
+
+    private void writeDumpedMapping(JSONObject mapping, List<String> order, String indent) throws IOException {
+        for (String key : orderedKeys(mapping, order)) {
+            writeDumpedEntry(plainOrQuoted(key), mapping.get(key), indent);
+        }
+    }
+
+    private void writeDumpedEntry(String key, Object value, String indent) throws IOException {
+        if (isBinaryContent(value)) {
+            line(indent + key + ": !binary |-");
+            line(indent + "  " + binaryContent(value));
+        } else if (value instanceof JSONObject) {
+            JSONObject nested = (JSONObject) value;
+            if (nested.isEmpty()) {
+                line(indent + key + ": {}");
+            } else {
+                line(indent + key + ":");
+                writeDumpedMapping(nested, null, indent + "  ");
+            }
+        } else if (value instanceof JSONArray) {
+            JSONArray items = (JSONArray) value;
+            if (items.length() == 0) {
+                line(indent + key + ": []");
+            } else {
+                line(indent + key + ":");
+                for (int i = 0; i < items.length(); i++) {
+                    line(indent + "- " + yamlScalar(items.opt(i)));
+                }
+            }
+        } else {
+            line(indent + key + ": " + yamlScalar(value));
+        }
+    }
+
+    private static String yamlScalar(Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            return "null";
+        }
+        if (value instanceof Boolean) {
+            return value.toString();
+        }
+        if (value instanceof String) {
+            return plainOrQuoted((String) value);
+        }
+        if (value instanceof JSONObject || value instanceof JSONArray) {
+            return pythonRepr(value);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Mirrors how PyYAML's SafeDumper picks a style for a string: plain when the value
+     * reads back as the same string, single quotes otherwise, double quotes for
+     * characters that need escaping.
+     */
+    static String plainOrQuoted(String value) {
+        boolean needsEscaping = false;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch != '\n' && (ch < 0x20 || ch > 0x7E)) {
+                needsEscaping = true;
+                break;
+            }
+        }
+        if (needsEscaping || value.indexOf('\n') >= 0) {
+            return doubleQuoted(value);
+        }
+        if (isPlainSafe(value)) {
+            return value;
+        }
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private static boolean isPlainSafe(String value) {
+        if (value.isEmpty() || IMPLICIT_NON_STRING.matcher(value).matches()) {
+            return false;
+        }
+        if (value.startsWith("---") || value.startsWith("...")) {
+            return false;
+        }
+        char first = value.charAt(0);
+        if ("#,[]{}&*!|>'\"%@`".indexOf(first) >= 0) {
+            return false;
+        }
+        if ("?:-".indexOf(first) >= 0 && (value.length() == 1 || value.charAt(1) == ' ')) {
+            return false;
+        }
+        if (first == ' ' || value.charAt(value.length() - 1) == ' ') {
+            return false;
+        }
+        if (value.endsWith(":") || value.contains(": ") || value.contains(" #")) {
+            return false;
+        }
+        return true;
+    }
+
+    private static String doubleQuoted(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 8).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '\0': sb.append("\\0"); break;
+                case 0x07: sb.append("\\a"); break;
+                case '\b': sb.append("\\b"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case 0x0B: sb.append("\\v"); break;
+                case '\f': sb.append("\\f"); break;
+                case '\r': sb.append("\\r"); break;
+                case 0x1B: sb.append("\\e"); break;
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case 0x85: sb.append("\\N"); break;
+                case 0xA0: sb.append("\\_"); break;
+                case 0x2028: sb.append("\\L"); break;
+                case 0x2029: sb.append("\\P"); break;
+                default:
+                    if (ch >= 0x20 && ch <= 0x7E) {
+                        sb.append(ch);
+                    } else if (Character.isHighSurrogate(ch) && i + 1 < value.length()) {
+                        sb.append(String.format("\\U%08X", value.codePointAt(i)));
+                        i++;
+                    } else if (ch <= 0xFF) {
+                        sb.append(String.format("\\x%02X", (int) ch));
+                    } else {
+                        sb.append(String.format("\\u%04X", (int) ch));
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Quoting applied by json_to_yml.py to event names, graphic names and string
+     * command parameters.
+     */
+    static String formatYamlString(Object value) {
+        if (!(value instanceof String)) {
+            return pythonStr(value);
+        }
+        String param = (String) value;
+        if (!param.isEmpty() && SPECIAL_START_CHARS.indexOf(param.charAt(0)) >= 0) {
+            return "\"" + param.replace("\"", "\\\"") + "\"";
+        }
+        if (param.indexOf(':') >= 0 && (param.endsWith(":") || param.contains(": ") || param.startsWith(":"))) {
+            return "'" + param.replace("'", "''") + "'";
+        }
+        return param;
+    }
+
+    // --- Helpers ---
+
+    private void line(String text) throws IOException {
+        out.write(text);
+        out.write('\n');
+    }
+
+    private static JSONObject audioFileOrDefault(Object value) {
+        if (value instanceof JSONObject) {
+            return (JSONObject) value;
+        }
+        JSONObject audio = new JSONObject();
+        audio.put("name", "");
+        audio.put("volume", 100);
+        audio.put("pitch", 100);
+        return audio;
+    }
+
+    private static List<String> orderedKeys(JSONObject object, List<String> preferredOrder) {
+        List<String> keys = new ArrayList<>(object.length());
+        if (preferredOrder != null) {
+            for (String key : preferredOrder) {
+                if (object.has(key)) {
+                    keys.add(key);
+                }
+            }
+        }
+        for (String key : new TreeSet<>(object.keySet())) {
+            if (preferredOrder == null || !preferredOrder.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private static boolean hasKeys(JSONObject object, String... keys) {
+        for (String key : keys) {
+            if (!object.has(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isMoveCommand(Object value) {
+        return value instanceof JSONObject && hasKeys((JSONObject) value, "code", "parameters")
+            && !((JSONObject) value).has("list");
+    }
+
+    static boolean isBinaryContent(Object value) {
+        return value instanceof JSONObject && ((JSONObject) value).has(MapYmlLoader.BINARY_CONTENT_KEY);
+    }
+
+    private static String binaryContent(Object value) {
+        return ((JSONObject) value).optString(MapYmlLoader.BINARY_CONTENT_KEY, "");
+    }
+
+    private static int toInt(Object value, int defaultValue) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt(((String) value).trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Warning: non numeric value '" + value + "' written as " + defaultValue + ".");
+            }
+        }
+        return defaultValue;
+    }
+
+    private static String pythonStr(Object value, Object defaultValue) {
+        return pythonStr(value != null ? value : defaultValue);
+    }
+
+    /**
+     * Text Python's str() gives for a JSON value, which is what the f-strings of
+     * json_to_yml.py wrote. Nulls are left empty so they read back as null instead of "None".
+     */
+    static String pythonStr(Object value) {
+        if (value instanceof String) {
+            return (String) value;
+        }
+        if (value == null || value == JSONObject.NULL) {
+            return "";
+        }
+        return pythonRepr(value);
+    }
+
+    static String pythonRepr(Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            return "None";
+        }
+        if (value instanceof Boolean) {
+            return ((Boolean) value) ? "True" : "False";
+        }
+        if (value instanceof String) {
+            String s = (String) value;
+            char quote = (s.indexOf('\'') >= 0 && s.indexOf('"') < 0) ? '"' : '\'';
+            StringBuilder sb = new StringBuilder(s.length() + 2).append(quote);
+            for (int i = 0; i < s.length(); i++) {
+                char ch = s.charAt(i);
+                if (ch == '\\' || ch == quote) {
+                    sb.append('\\').append(ch);
+                } else if (ch == '\n') {
+                    sb.append("\\n");
+                } else if (ch == '\r') {
+                    sb.append("\\r");
+                } else if (ch == '\t') {
+                    sb.append("\\t");
+                } else {
+                    sb.append(ch);
+                }
+            }
+            return sb.append(quote).toString();
+        }
+        if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < array.length(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(pythonRepr(array.opt(i)));
+            }
+            return sb.append(']').toString();
+        }
+        if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            StringBuilder sb = new StringBuilder("{");
+            boolean first = true;
+            for (String key : object.keySet()) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                sb.append(pythonRepr(key)).append(": ").append(pythonRepr(object.get(key)));
+            }
+            return sb.append('}').toString();
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,158 @@
+package psdk.EventEditor.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Decodes the "data" Table of a RMXP map straight into a {@link TileGrid}, without going
+ * through nested JSON arrays.
+ */
+public class TableDecoder {
+
+    // Marshal dump of a Table: dimension, xsize, ysize, zsize, cell count, then int16 cells.
+    private static final int BINARY_HEADER_SIZE = 5 * Integer.BYTES;
+
+    /**
+     * Decodes the text form written in the map YAML files:
+     * "init W H L" then, for each layer, "z = N" followed by H rows of W tile ids.
+     */
+    public static TileGrid decodeText(CharSequence text) {
+        Tokenizer tokenizer = new Tokenizer(text);
+        if (!tokenizer.nextWordIs("init")) {
+            throw new IllegalArgumentException("Table text does not start with 'init W H L'");
+        }
+
+        int width = tokenizer.nextInt();
+        int height = tokenizer.nextInt();
+        int layers = tokenizer.nextInt();
+        TileGrid grid = new TileGrid(width, height, layers);
+        short[] tiles = grid.rawTiles();
+        int layerSize = width * height;
+
+        int z = -1;
+        int cell = 0;
+        while (tokenizer.hasNext()) {
+            if (tokenizer.nextWordIs("z")) {
+                tokenizer.skipEquals();
+                z = tokenizer.nextInt();
+                if (z < 0 || z >= layers) {
+                    throw new IllegalArgumentException("Layer " + z + " is out of bounds for " + layers + " layers");
+                }
+                cell = 0;
+                continue;
+            }
+
+            int tileId = tokenizer.nextInt();
+            if (z < 0) {
+                throw new IllegalArgumentException("Tile data found before any 'z = N' line");
+            }
+            if (cell < layerSize) {
+                tiles[z * layerSize + cell] = (short) tileId;
+            }
+            cell++;
+        }
+        return grid;
+    }
+
+    /**
+     * Decodes the Marshal dump of a Table (little-endian int32 header then int16 cells,
+     * x varying fastest), which is already the memory layout of {@link TileGrid}.
+     */
+    public static TileGrid decodeBinary(byte[] data) {
+        if (data.length < BINARY_HEADER_SIZE) {
+            throw new IllegalArgumentException("Table data too short: " + data.length + " bytes");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.getInt(); // dimension count, the sizes below are always present
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        int layers = buffer.getInt();
+        int cellCount = buffer.getInt();
+
+        TileGrid grid = new TileGrid(width, height, layers);
+        short[] tiles = grid.rawTiles();
+        if (cellCount != tiles.length || buffer.remaining() < cellCount * Short.BYTES) {
+            throw new IllegalArgumentException("Table data does not hold " + width + "x" + height + "x" + layers + " cells");
+        }
+        buffer.asShortBuffer().get(tiles);
+        return grid;
+    }
+
+    /**
+     * Minimal scanner over the table text, reading integers without creating strings.
+     */
+    private static final class Tokenizer {
+        private final CharSequence text;
+        private int pos;
+
+        Tokenizer(CharSequence text) {
+            this.text = text;
+        }
+
+        boolean hasNext() {
+            skipSeparators();
+            return pos < text.length();
+        }
+
+        boolean nextWordIs(String word) {
+            skipSeparators();
+            int end = pos + word.length();
+            if (end > text.length()) {
+                return false;
+            }
+            for (int i = 0; i < word.length(); i++) {
+                if (text.charAt(pos + i) != word.charAt(i)) {
+                    return false;
+                }
+            }
+            if (end < text.length() && Character.isLetterOrDigit(text.charAt(end))) {
+                return false;
+            }
+            pos = end;
+            return true;
+        }
+
+        void skipEquals() {
+            skipSeparators();
+            if (pos < text.length() && text.charAt(pos) == '=') {
+                pos++;
+            }
+        }
+
+        int nextInt() {
+            skipSeparators();
+            boolean negative = false;
+            if (pos < text.length() && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+                negative = text.charAt(pos) == '-';
+                pos++;
+            }
+
+            int start = pos;
+            int value = 0;
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                value = value * 10 + (c - '0');
+                pos++;
+            }
+            if (pos == start) {
+                throw new IllegalArgumentException("Expected a number at offset " + pos + " of the table text");
+            }
+            return negative ? -value : value;
+        }
+
+        private void skipSeparators() {
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == ',' || c == '[' || c == ']') {
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package psdk.EventEditor.model;
+
+/**
+ * Tile ids of a map stored in a single flat array, layer by layer then row by row
+ * (index = (z * height + y) * width + x), like the RMXP Table it comes from.
+ * Values are kept as signed 16 bit integers, which is what RMXP tables hold.
+ */
+public class TileGrid {
+
+    private final int width;
+    private final int height;
+    private final int layers;
+    private final short[] tiles;
+
+    public TileGrid(int width, int height, int layers) {
+        if (width <= 0 || height <= 0 || layers <= 0) {
+            throw new IllegalArgumentException("Invalid grid dimensions: " + width + "x" + height + "x" + layers);
+        }
+        this.width = width;
+        this.height = height;
+        this.layers = layers;
+        this.tiles = new short[Math.multiplyExact(Math.multiplyExact(width, height), layers)];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getLayers() {
+        return layers;
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    public int getTile(int x, int y, int z) {
+        return tiles[indexOf(x, y, z)];
+    }
+
+    public void setTile(int x, int y, int z, int tileId) {
+        if (tileId < Short.MIN_VALUE || tileId > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Tile id " + tileId + " does not fit in a RMXP table");
+        }
+        tiles[indexOf(x, y, z)] = (short) tileId;
+    }
+
+    /**
+     * Backing array, for decoders filling the whole grid at once.
+     */
+    short[] rawTiles() {
+        return tiles;
+    }
+
+    private int indexOf(int x, int y, int z) {
+        if (x < 0 || x >= width || y < 0 || y >= height || z < 0 || z >= layers) {
+            throw new IndexOutOfBoundsException("Tile (" + x + ", " + y + ", " + z + ") is outside of a "
+                + width + "x" + height + "x" + layers + " grid");
+        }
+        return (z * height + y) * width + x;
+    }
+}
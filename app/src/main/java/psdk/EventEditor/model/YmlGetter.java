@@ -5,14 +5,12 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 
 import libs.json.JSONObject;
 
 public class YmlGetter {
 
-    // --- VOTRE ANCIENNE LOGIQUE getMapName QUI MARCHE POUR MapInfos.rxdata.yml ---
-    // (Pas de changement ici, elle fonctionne comme voulu)
+    // --- getMapName : nom de la map dans MapInfos.rxdata.yml, via MapInfoIndex ---
     public static String getMapName(File mapFile, String rpgMakerProjectRootPath) {
         String fileName = mapFile.getName();
         if (fileName.length() < 6 || !fileName.startsWith("Map") || !fileName.substring(3, 6).matches("\\d{3}")) {
@@ -34,75 +32,37 @@ public class YmlGetter {
             return null;
         }
 
-        File mapInfosFile = new File(rpgMakerProjectRootPath + File.separator + "Data", "MapInfos.rxdata.yml");
-        
-        if (!mapInfosFile.exists()) {
-            System.err.println("[YmlGetter] Fichier MapInfos.rxdata.yml non trouvé à : " + mapInfosFile.getAbsolutePath());
-            return null;
+        String mapName = MapInfoIndex.forProject(rpgMakerProjectRootPath).getName(mapNumber);
+        if (mapName == null) {
+            System.err.println("[YmlGetter] Nom de map non trouvé pour le numéro " + mapNumber + " dans MapInfos.rxdata.yml.");
         }
+        return mapName;
+    }
+    // --- FIN getMapName ---
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(mapInfosFile))) {
-            String line;
-            boolean foundMapIdSection = false;
-            String potentialBase64Content = null;
 
+    // --- MÉTHODES BASÉES SUR LE JSON (CORRIGÉES : accès direct aux clés) ---
+    /**
+     * Lit le tileset_id dans l'en-tête d'un fichier MapXXX.rxdata.yml, sans parser le reste du fichier.
+     * Retourne 0 si la clé n'apparaît pas avant la grille ou les events.
+     */
+    public static int readTilesetIdFromMapFile(File mapFile) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(mapFile, StandardCharsets.UTF_8))) {
+            String line;
             while ((line = reader.readLine()) != null) {
-                String trimmedLine = line.trim();
-
-                if (potentialBase64Content != null) {
-                    try {
-                        byte[] decodedBytes = Base64.getDecoder().decode(trimmedLine);
-                        return new String(decodedBytes, StandardCharsets.UTF_8);
-                    } catch (IllegalArgumentException decodeError) {
-                        System.err.println("[YmlGetter] Erreur de décodage Base64 pour le nom de map (ligne: " + trimmedLine + ") : " + decodeError.getMessage());
-                        return trimmedLine;
-                    } finally {
-                        potentialBase64Content = null;
-                    }
+                if (line.startsWith("tileset_id:")) {
+                    return Integer.parseInt(line.substring("tileset_id:".length()).trim());
                 }
-                
-                if (!foundMapIdSection) {
-                    if (trimmedLine.startsWith(String.valueOf(mapNumber) + ":")) {
-                        foundMapIdSection = true;
-                    }
-                } else {
-                    if (trimmedLine.startsWith("name:")) {
-                        String[] parts = trimmedLine.split(":", 2);
-                        if (parts.length >= 2) {
-                            String rawName = parts[1].trim();
-                            if (rawName.startsWith("!binary |-")) {
-                                String base64Encoded = rawName.substring("!binary |-".length()).trim();
-                                if (!base64Encoded.isEmpty()) {
-                                    try {
-                                        byte[] decodedBytes = Base64.getDecoder().decode(base64Encoded);
-                                        return new String(decodedBytes, StandardCharsets.UTF_8);
-                                    } catch (IllegalArgumentException decodeError) {
-                                        System.err.println("[YmlGetter] Erreur de décodage Base64 pour le nom de map (same line): " + decodeError.getMessage());
-                                        return rawName;
-                                    }
-                                } else {
-                                    potentialBase64Content = "!binary"; 
-                                }
-                            } else {
-                                return rawName; 
-                            }
-                        }
-                    }
-                    if (potentialBase64Content == null && (trimmedLine.matches("^\\d+:") || (!line.startsWith(" ") && !trimmedLine.isEmpty()))) {
-                       break; 
-                    }
+                if (line.startsWith("data:") || line.startsWith("events:")) {
+                    break;
                 }
             }
-        } catch (IOException e) {
-            System.err.println("[YmlGetter] Erreur de lecture du fichier MapInfos.rxdata.yml : " + e.getMessage());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("[YmlGetter] Impossible de lire le tileset_id de " + mapFile.getName() + " : " + e.getMessage());
         }
-        System.err.println("[YmlGetter] Nom de map non trouvé pour le numéro " + mapNumber + " dans MapInfos.rxdata.yml.");
-        return null;
+        return 0;
     }
-    // --- FIN VOTRE ANCIENNE LOGIQUE getMapName ---
 
-
-    // --- MÉTHODES BASÉES SUR LE JSON (CORRIGÉES : accès direct aux clés) ---
     public static int getTilesetIdFromJson(JSONObject mapJsonData) {
         if (mapJsonData == null) {
             System.err.println("[YmlGetter] getTilesetIdFromJson: mapJsonData est null.");
@@ -0,0 +1,72 @@
+package psdk.EventEditor.utils;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Converts images read from disk (usually TYPE_4BYTE_ABGR or TYPE_CUSTOM for PNGs) into the
+ * pixel layout of the screen, which Java2D can blit with its fast, accelerated loops.
+ */
+public class CompatibleImages {
+
+    /**
+     * Reads an image and converts it once. Returns null when the format is not supported.
+     */
+    public static BufferedImage read(File imageFile) throws IOException {
+        BufferedImage image = ImageIO.read(imageFile);
+        return image != null ? toCompatibleImage(image) : null;
+    }
+
+    public static BufferedImage toCompatibleImage(BufferedImage image) {
+        GraphicsConfiguration configuration = getDefaultConfiguration();
+        BufferedImage compatible;
+        if (configuration != null) {
+            if (image.getColorModel().equals(configuration.getColorModel(image.getTransparency()))) {
+                return image;
+            }
+            compatible = configuration.createCompatibleImage(image.getWidth(), image.getHeight(), image.getTransparency());
+        } else {
+            // Headless: int packed types are the fast path of the software loops.
+            int type = image.getTransparency() == Transparency.OPAQUE
+                ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE;
+            if (image.getType() == type) {
+                return image;
+            }
+            compatible = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        }
+
+        Graphics2D g2d = compatible.createGraphics();
+        try {
+            g2d.drawImage(image, 0, 0, null);
+        } finally {
+            g2d.dispose();
+        }
+        return compatible;
+    }
+
+    /**
+     * Blank image in the screen layout, for images that are drawn into and blitted often.
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        GraphicsConfiguration configuration = getDefaultConfiguration();
+        if (configuration != null) {
+            return configuration.createCompatibleImage(width, height, transparency);
+        }
+        return new BufferedImage(width, height,
+            transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    public static GraphicsConfiguration getDefaultConfiguration() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return null;
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+}
@@ -0,0 +1,567 @@
+package psdk.EventEditor.utils;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.imageio.ImageIO;
+
+import libs.json.JSONArray;
+import libs.json.JSONObject;
+import psdk.EventEditor.model.Event;
+import psdk.EventEditor.model.EventCommand;
+import psdk.EventEditor.model.EventEditorDialog.EventCommandCodes;
+import psdk.EventEditor.model.EventPage;
+import psdk.EventEditor.model.MapDocument;
+import psdk.EventEditor.model.MapInfoIndex;
+import psdk.EventEditor.model.MapYmlWriter;
+import psdk.EventEditor.model.TileGrid;
+
+/**
+ * Writes a synthetic RMXP project (Data/MapInfos.rxdata.yml, Data/MapXXX.rxdata.yml and
+ * placeholder tilesets and character sheets) to load and scale test the editor without a
+ * real game. The output only depends on the settings, the same seed gives the same project.
+ * Run with
+ * java -cp app/build/classes/java/main psdk.EventEditor.utils.ProjectGenerator &lt;output folder&gt; [--maps=999] [--width=100] ...
+ */
+public class ProjectGenerator {
+
+    private static final int TILE_SIZE = 32;
+    private static final int TILESET_COLUMNS = 8;
+    private static final int TILESET_ROWS = 64;
+    // Ids below 384 are autotiles, which need their own graphics
+    private static final int FIRST_TILE_ID = 384;
+    private static final int CHARACTER_FRAME_WIDTH = 32;
+    private static final int CHARACTER_FRAME_HEIGHT = 48;
+
+    private static final String[] MAP_NAMES = {"Route", "Ville", "Grotte", "Forêt", "Centre Pokémon", "Maison", "Arène", "Port"};
+
+    // Default command mix, top level command code -> weight
+    private static final Map<Integer, Integer> DEFAULT_COMMAND_MIX = new LinkedHashMap<>();
+    static {
+        DEFAULT_COMMAND_MIX.put(EventCommandCodes.SHOW_TEXT, 8);
+        DEFAULT_COMMAND_MIX.put(EventCommandCodes.COMMENT, 2);
+        DEFAULT_COMMAND_MIX.put(EventCommandCodes.CONDITIONAL_BRANCH, 3);
+        DEFAULT_COMMAND_MIX.put(EventCommandCodes.SHOW_CHOICES, 1);
+        DEFAULT_COMMAND_MIX.put(EventCommandCodes.CONTROL_SELF_SWITCH, 2);
+        DEFAULT_COMMAND_MIX.put(EventCommandCodes.SET_MOVEMENT_ROUTE, 3);
+        DEFAULT_COMMAND_MIX.put(EventCommandCodes.SCRIPT, 2);
+        DEFAULT_COMMAND_MIX.put(EventCommandCodes.PLAY_SE, 1);
+        DEFAULT_COMMAND_MIX.put(EventCommandCodes.TRANSFER_PLAYER, 1);
+        DEFAULT_COMMAND_MIX.put(EventCommandCodes.SCREEN_FLASH, 1);
+    }
+
+    // Top level codes the generator knows the parameters of
+    private static final Set<Integer> SUPPORTED_CODES = Set.of(
+        EventCommandCodes.SHOW_TEXT, EventCommandCodes.SHOW_CHOICES, EventCommandCodes.CHANGE_VARIABLES,
+        EventCommandCodes.COMMENT, EventCommandCodes.CONDITIONAL_BRANCH, EventCommandCodes.ERASE_EVENT,
+        EventCommandCodes.CONTROL_SELF_SWITCH, EventCommandCodes.CHANGE_BATTLE_BGM, EventCommandCodes.TRANSFER_PLAYER,
+        EventCommandCodes.SET_EVENT_LOCATION, EventCommandCodes.SCROLL_MAP, EventCommandCodes.CHANGE_MAP_SETTINGS,
+        EventCommandCodes.SET_MOVEMENT_ROUTE, EventCommandCodes.SCREEN_FLASH, EventCommandCodes.SCREEN_SHAKE,
+        EventCommandCodes.SHOW_PICTURE, EventCommandCodes.PLAY_BGM, EventCommandCodes.FADE_OUT_BGM,
+        EventCommandCodes.PLAY_BGS, EventCommandCodes.FADE_OUT_BGS, EventCommandCodes.PLAY_SE,
+        EventCommandCodes.STOP_SE, EventCommandCodes.SCRIPT);
+
+    /**
+     * What to generate. Every field can be given on the command line as --name=value.
+     */
+    public static class Settings {
+        public int maps = 20;
+        public int width = 40;
+        public int height = 30;
+        public int layers = 3;
+        public int events = 50;
+        public int pages = 2;
+        // Top level commands per page, a branch or a choice counts as one
+        public int commands = 10;
+        public int tilesets = 4;
+        public int characters = 20;
+        public long seed = 42;
+        public Map<Integer, Integer> commandMix = new LinkedHashMap<>(DEFAULT_COMMAND_MIX);
+
+        /**
+         * Parses "--maps=999 --width=100 --commands-mix=101:5,209:2 ...".
+         */
+        public static Settings parse(String[] args) {
+            Settings settings = new Settings();
+            for (String arg : args) {
+                int equals = arg.indexOf('=');
+                if (!arg.startsWith("--") || equals < 0) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                String name = arg.substring(2, equals);
+                String value = arg.substring(equals + 1);
+                switch (name) {
+                    case "maps": settings.maps = parsePositive(name, value); break;
+                    case "width": settings.width = parsePositive(name, value); break;
+                    case "height": settings.height = parsePositive(name, value); break;
+                    case "layers": settings.layers = parsePositive(name, value); break;
+                    case "events": settings.events = Integer.parseInt(value); break;
+                    case "pages": settings.pages = parsePositive(name, value); break;
+                    case "commands": settings.commands = Integer.parseInt(value); break;
+                    case "tilesets": settings.tilesets = parsePositive(name, value); break;
+                    case "characters": settings.characters = parsePositive(name, value); break;
+                    case "seed": settings.seed = Long.parseLong(value); break;
+                    case "commands-mix": settings.commandMix = parseCommandMix(value); break;
+                    default: throw new IllegalArgumentException("Unknown option: --" + name);
+                }
+            }
+            if (settings.maps > 999) {
+                throw new IllegalArgumentException("RMXP projects hold at most 999 maps");
+            }
+            return settings;
+        }
+
+        private static int parsePositive(String name, String value) {
+            int parsed = Integer.parseInt(value);
+            if (parsed <= 0) {
+                throw new IllegalArgumentException("--" + name + " must be positive");
+            }
+            return parsed;
+        }
+
+        private static Map<Integer, Integer> parseCommandMix(String value) {
+            Map<Integer, Integer> mix = new LinkedHashMap<>();
+            for (String part : value.split(",")) {
+                String[] codeAndWeight = part.trim().split(":");
+                int code = Integer.parseInt(codeAndWeight[0].trim());
+                if (!SUPPORTED_CODES.contains(code)) {
+                    throw new IllegalArgumentException("Command " + code + " (" + EventCommandCodes.getDefaultCommandName(code)
+                        + ") cannot be generated, supported codes: " + new TreeSet<>(SUPPORTED_CODES));
+                }
+                mix.put(code, codeAndWeight.length > 1 ? Integer.parseInt(codeAndWeight[1].trim()) : 1);
+            }
+            return mix;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            System.err.println("Usage: ProjectGenerator <output folder> [--maps=20] [--width=40] [--height=30] [--layers=3]"
+                + " [--events=50] [--pages=2] [--commands=10] [--tilesets=4] [--characters=20] [--seed=42]"
+                + " [--commands-mix=101:8,111:3,209:3]");
+            System.exit(1);
+        }
+
+        Settings settings;
+        try {
+            settings = Settings.parse(Arrays.copyOfRange(args, 1, args.length));
+        } catch (IllegalArgumentException e) {
+            System.err.println("[ProjectGenerator] " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        long start = System.nanoTime();
+        new ProjectGenerator(settings).generate(new File(args[0]));
+        System.out.printf("[ProjectGenerator] %d maps generated in %s in %.1f s%n",
+            settings.maps, args[0], (System.nanoTime() - start) / 1e9);
+    }
+
+    private final Settings settings;
+    private final List<Integer> commandCodes = new ArrayList<>();
+    private final List<Integer> commandWeights = new ArrayList<>();
+    private int totalWeight;
+
+    public ProjectGenerator(Settings settings) {
+        this.settings = settings;
+        for (Map.Entry<Integer, Integer> entry : settings.commandMix.entrySet()) {
+            if (entry.getValue() > 0) {
+                commandCodes.add(entry.getKey());
+                commandWeights.add(entry.getValue());
+                totalWeight += entry.getValue();
+            }
+        }
+    }
+
+    /**
+     * Writes the whole project in projectRoot. An existing project is never overwritten.
+     */
+    public void generate(File projectRoot) throws IOException {
+        File dataFolder = new File(projectRoot, "Data");
+        if (new File(dataFolder, MapInfoIndex.MAP_INFOS_FILE_NAME).exists()) {
+            throw new IOException("A project already exists in " + projectRoot.getAbsolutePath());
+        }
+        File tilesetsFolder = new File(projectRoot, "Graphics" + File.separator + "Tilesets");
+        File charactersFolder = new File(projectRoot, "Graphics" + File.separator + "Characters");
+        for (File folder : new File[] {dataFolder, tilesetsFolder, charactersFolder}) {
+            if (!folder.isDirectory() && !folder.mkdirs()) {
+                throw new IOException("Could not create " + folder.getAbsolutePath());
+            }
+        }
+
+        for (int tilesetId = 1; tilesetId <= settings.tilesets; tilesetId++) {
+            ImageIO.write(createTileset(tilesetId), "png", new File(tilesetsFolder, "_" + tilesetId + ".png"));
+        }
+        for (int index = 0; index < settings.characters; index++) {
+            ImageIO.write(createCharacterSheet(index), "png", new File(charactersFolder, characterName(index) + ".png"));
+        }
+
+        writeMapInfos(new File(dataFolder, MapInfoIndex.MAP_INFOS_FILE_NAME));
+        for (int mapId = 1; mapId <= settings.maps; mapId++) {
+            File mapFile = new File(dataFolder, String.format("Map%03d.rxdata.yml", mapId));
+            MapYmlWriter.writeMap(createMap(mapId, mapFile), mapFile);
+            if (mapId % 100 == 0) {
+                System.out.println("[ProjectGenerator] " + mapId + "/" + settings.maps + " maps written");
+            }
+        }
+    }
+
+    // --- Maps ---
+
+    /**
+     * Builds map mapId, always the same for the same settings.
+     */
+    public MapDocument createMap(int mapId, File mapFile) {
+        Random random = new Random(settings.seed * 1000 + mapId);
+        int width = settings.width;
+        int height = settings.height;
+
+        JSONObject mapData = new JSONObject();
+        mapData.put("tileset_id", 1 + (mapId - 1) % settings.tilesets);
+        mapData.put("width", width);
+        mapData.put("height", height);
+        JSONObject header = new JSONObject();
+        header.put("map_data", mapData);
+        header.put("autoplay_bgm", random.nextBoolean());
+        header.put("bgm", audioFile(random.nextBoolean() ? "route_" + random.nextInt(10) : "", 100));
+        header.put("autoplay_bgs", false);
+        header.put("bgs", audioFile("", 80));
+        header.put("encounter_list", new JSONArray());
+        header.put("encounter_step", 30);
+
+        TileGrid grid = new TileGrid(width, height, settings.layers);
+        int tileCount = TILESET_COLUMNS * TILESET_ROWS;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                // Ground on the first layer, sparser decoration on each layer above
+                grid.setTile(x, y, 0, FIRST_TILE_ID + random.nextInt(TILESET_COLUMNS * 4));
+                for (int z = 1; z < settings.layers; z++) {
+                    if (random.nextInt(4 << z) == 0) {
+                        grid.setTile(x, y, z, FIRST_TILE_ID + random.nextInt(tileCount));
+                    }
+                }
+            }
+        }
+
+        int eventCount = Math.min(settings.events, width * height);
+        List<Event> events = new ArrayList<>(eventCount);
+        Set<Integer> usedCells = new HashSet<>();
+        for (int id = 1; id <= eventCount; id++) {
+            int cell;
+            do {
+                cell = random.nextInt(width * height);
+            } while (!usedCells.add(cell));
+
+            Event event = new Event(id, String.format("EV%03d", id), cell % width, cell / width);
+            for (int pageIndex = 0; pageIndex < settings.pages; pageIndex++) {
+                event.addPage(createPage(pageIndex, random));
+            }
+            events.add(event);
+        }
+
+        return new MapDocument(mapId, mapFile, mapFile.lastModified(), header, grid, events);
+    }
+
+    private EventPage createPage(int pageIndex, Random random) {
+        EventPage page = new EventPage();
+        page.setPage_index(pageIndex);
+        page.setMove_type(random.nextInt(3));
+        page.setTrigger(random.nextInt(5));
+        page.setMoveFrequency(3);
+        page.setMoveSpeed(3 + random.nextInt(2));
+        page.setWalkAnime(true);
+        page.setStepAnime(random.nextInt(4) == 0);
+        page.setDirectionFix(random.nextInt(4) == 0);
+        page.setThrough(random.nextInt(8) == 0);
+
+        JSONObject graphic = new JSONObject();
+        graphic.put("character_hue", 0);
+        graphic.put("character_name", characterName(random.nextInt(settings.characters)));
+        graphic.put("pattern", 0);
+        graphic.put("opacity", 255);
+        graphic.put("tile_id", 0);
+        graphic.put("blend_type", 0);
+        graphic.put("direction", 2 * (1 + random.nextInt(4)));
+        page.setGraphic(graphic);
+
+        // Later pages take over once a switch is on, like most real events
+        JSONObject condition = new JSONObject();
+        condition.put("switch1_id", pageIndex > 0 ? 1 + random.nextInt(200) : 1);
+        condition.put("switch2_id", 1);
+        condition.put("variable_value", 0);
+        condition.put("switch1_valid", pageIndex > 0);
+        condition.put("variable_id", 1);
+        condition.put("variable_valid", false);
+        condition.put("self_switch_valid", false);
+        condition.put("switch2_valid", false);
+        condition.put("self_switch_ch", "A");
+        page.setCondition(condition);
+
+        page.setMoveRoute(moveRoute(true, new JSONArray()));
+
+        List<EventCommand> commands = new ArrayList<>();
+        for (int i = 0; i < settings.commands && totalWeight > 0; i++) {
+            addCommand(commands, pickCode(random), 0, random);
+        }
+        commands.add(command(EventCommandCodes.END, 0));
+        page.setCommands(commands);
+        return page;
+    }
+
+    private int pickCode(Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (int i = 0; i < commandCodes.size(); i++) {
+            roll -= commandWeights.get(i);
+            if (roll < 0) {
+                return commandCodes.get(i);
+            }
+        }
+        return commandCodes.get(commandCodes.size() - 1);
+    }
+
+    /**
+     * Appends the command and, for blocks, its continuation lines and nested commands, with
+     * the parameters RMXP writes for it.
+     */
+    private void addCommand(List<EventCommand> commands, int code, int indent, Random random) {
+        switch (code) {
+            case EventCommandCodes.SHOW_TEXT:
+                commands.add(command(code, indent, "Ligne de dialogue n°" + random.nextInt(1000) + ", avec un peu de texte."));
+                break;
+            case EventCommandCodes.SHOW_CHOICES:
+                commands.add(command(code, indent, new JSONArray().put("Oui").put("Non"), 2));
+                commands.add(command(EventCommandCodes.WHEN_CHOICE, indent, 0, "Oui"));
+                addNested(commands, indent + 1, random);
+                commands.add(command(EventCommandCodes.WHEN_CHOICE, indent, 1, "Non"));
+                addNested(commands, indent + 1, random);
+                commands.add(command(EventCommandCodes.END_CHOICE, indent));
+                break;
+            case EventCommandCodes.CHANGE_VARIABLES:
+                commands.add(command(code, indent, 1 + random.nextInt(40)));
+                break;
+            case EventCommandCodes.COMMENT:
+                commands.add(command(code, indent, "Commentaire " + random.nextInt(100)));
+                commands.add(command(EventCommandCodes.COMMENT_CONTINUATION, indent, "suite du commentaire"));
+                break;
+            case EventCommandCodes.CONDITIONAL_BRANCH:
+                commands.add(command(code, indent, 0, 1 + random.nextInt(200), 0));
+                addNested(commands, indent + 1, random);
+                commands.add(command(EventCommandCodes.ELSE, indent));
+                addNested(commands, indent + 1, random);
+                commands.add(command(EventCommandCodes.BRANCH_END, indent));
+                break;
+            case EventCommandCodes.CONTROL_SELF_SWITCH:
+                commands.add(command(code, indent, String.valueOf("ABCD".charAt(random.nextInt(4))), random.nextInt(2)));
+                break;
+            case EventCommandCodes.CHANGE_BATTLE_BGM:
+            case EventCommandCodes.PLAY_BGM:
+                commands.add(command(code, indent, audioFile("battle" + (1 + random.nextInt(5)), 100)));
+                break;
+            case EventCommandCodes.PLAY_BGS:
+            case EventCommandCodes.PLAY_SE:
+                commands.add(command(code, indent, audioFile("020-teleport0" + (1 + random.nextInt(3)), 80)));
+                break;
+            case EventCommandCodes.FADE_OUT_BGM:
+            case EventCommandCodes.FADE_OUT_BGS:
+                commands.add(command(code, indent, 10));
+                break;
+            case EventCommandCodes.TRANSFER_PLAYER:
+                commands.add(command(code, indent, 0, 1 + random.nextInt(settings.maps),
+                    random.nextInt(settings.width), random.nextInt(settings.height), 0, 0));
+                break;
+            case EventCommandCodes.SET_EVENT_LOCATION:
+                commands.add(command(code, indent, 0, 0, random.nextInt(settings.width), random.nextInt(settings.height), 0));
+                break;
+            case EventCommandCodes.SCROLL_MAP:
+                commands.add(command(code, indent, 2 * (1 + random.nextInt(4)), 1 + random.nextInt(10), 4));
+                break;
+            case EventCommandCodes.CHANGE_MAP_SETTINGS:
+                commands.add(command(code, indent, 1, "fog_" + random.nextInt(3), 0, 64, 0, 200, 0, 0));
+                break;
+            case EventCommandCodes.SET_MOVEMENT_ROUTE:
+                addMoveRoute(commands, indent, random);
+                break;
+            case EventCommandCodes.SCREEN_FLASH:
+                commands.add(command(code, indent, color(255, 255, 255, 255), 10));
+                break;
+            case EventCommandCodes.SCREEN_SHAKE:
+                commands.add(command(code, indent, 5, 5, 5));
+                break;
+            case EventCommandCodes.SHOW_PICTURE:
+                commands.add(command(code, indent, 1, "picture_" + random.nextInt(5), 0, 0, 0, 0, 100, 100, 255, 0));
+                break;
+            case EventCommandCodes.SCRIPT:
+                commands.add(command(code, indent, "$game_switches[" + (1 + random.nextInt(200)) + "] = true"));
+                commands.add(command(EventCommandCodes.SCRIPT_CONTINUATION, indent, "$game_map.need_refresh = true"));
+                break;
+            default:
+                // ERASE_EVENT, STOP_SE
+                commands.add(command(code, indent));
+                break;
+        }
+    }
+
+    /**
+     * One or two simple commands inside a branch, closed by the End RMXP puts there.
+     */
+    private void addNested(List<EventCommand> commands, int indent, Random random) {
+        int count = 1 + random.nextInt(2);
+        for (int i = 0; i < count; i++) {
+            int code = pickCode(random);
+            if (code == EventCommandCodes.SHOW_CHOICES || code == EventCommandCodes.CONDITIONAL_BRANCH) {
+                code = EventCommandCodes.SHOW_TEXT;
+            }
+            addCommand(commands, code, indent, random);
+        }
+        commands.add(command(EventCommandCodes.END, indent));
+    }
+
+    private void addMoveRoute(List<EventCommand> commands, int indent, Random random) {
+        JSONArray moves = new JSONArray();
+        int moveCount = 1 + random.nextInt(4);
+        for (int i = 0; i < moveCount; i++) {
+            // Move down/left/right/up or turn down/left/right/up
+            JSONObject move = new JSONObject();
+            move.put("code", random.nextBoolean() ? 1 + random.nextInt(4) : 16 + random.nextInt(4));
+            move.put("parameters", new JSONArray());
+            moves.put(move);
+        }
+        commands.add(command(EventCommandCodes.SET_MOVEMENT_ROUTE, indent, random.nextBoolean() ? -1 : 0, moveRoute(false, moves)));
+        // RMXP repeats every move of the route as a Movement Command line
+        for (int i = 0; i < moveCount; i++) {
+            commands.add(command(EventCommandCodes.MOVEMENT_COMMAND, indent, moves.getJSONObject(i)));
+        }
+    }
+
+    private static EventCommand command(int code, int indent, Object... parameters) {
+        JSONArray array = new JSONArray();
+        for (Object parameter : parameters) {
+            array.put(parameter);
+        }
+        return new EventCommand(code, String.valueOf(indent), array);
+    }
+
+    private static JSONObject moveRoute(boolean repeat, JSONArray list) {
+        JSONObject end = new JSONObject();
+        end.put("code", 0);
+        end.put("parameters", new JSONArray());
+        list.put(end);
+
+        JSONObject route = new JSONObject();
+        route.put("repeat", repeat);
+        route.put("skippable", false);
+        route.put("list", list);
+        return route;
+    }
+
+    private static JSONObject audioFile(String name, int volume) {
+        JSONObject audio = new JSONObject();
+        audio.put("volume", volume);
+        audio.put("name", name);
+        audio.put("pitch", 100);
+        return audio;
+    }
+
+    private static JSONObject color(int red, int green, int blue, int alpha) {
+        JSONObject color = new JSONObject();
+        color.put("red", red);
+        color.put("green", green);
+        color.put("blue", blue);
+        color.put("alpha", alpha);
+        return color;
+    }
+
+    // --- MapInfos ---
+
+    /**
+     * Every tenth map is a parent folder of the nine following ones, as in a real map tree.
+     */
+    private void writeMapInfos(File mapInfosFile) throws IOException {
+        try (Writer out = Files.newBufferedWriter(mapInfosFile.toPath(), StandardCharsets.UTF_8)) {
+            out.write("---\n");
+            for (int mapId = 1; mapId <= settings.maps; mapId++) {
+                int parentId = (mapId - 1) % 10 == 0 ? 0 : mapId - (mapId - 1) % 10;
+                out.write(mapId + ": !ruby/object:RPG::MapInfo\n");
+                out.write("  scroll_x: 0\n");
+                out.write("  name: " + MAP_NAMES[(mapId - 1) % MAP_NAMES.length] + " " + mapId + "\n");
+                out.write("  expanded: " + (parentId == 0) + "\n");
+                out.write("  order: " + mapId + "\n");
+                out.write("  scroll_y: 0\n");
+                out.write("  parent_id: " + parentId + "\n");
+            }
+        }
+    }
+
+    // --- Graphics ---
+
+    private static String characterName(int index) {
+        return String.format("npc_%02d_walk", index);
+    }
+
+    /**
+     * A plain colored square per tile with a darker border, the hue changing with the tileset.
+     */
+    private static BufferedImage createTileset(int tilesetId) {
+        BufferedImage image = new BufferedImage(TILESET_COLUMNS * TILE_SIZE, TILESET_ROWS * TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            float hue = (tilesetId * 0.17f) % 1f;
+            for (int tile = 0; tile < TILESET_COLUMNS * TILESET_ROWS; tile++) {
+                int x = (tile % TILESET_COLUMNS) * TILE_SIZE;
+                int y = (tile / TILESET_COLUMNS) * TILE_SIZE;
+                Color color = Color.getHSBColor(hue + (tile % TILESET_COLUMNS) * 0.02f, 0.5f, 0.4f + 0.5f * (tile % 7) / 6f);
+                g2d.setColor(color);
+                g2d.fillRect(x, y, TILE_SIZE, TILE_SIZE);
+                g2d.setColor(color.darker());
+                g2d.drawRect(x, y, TILE_SIZE - 1, TILE_SIZE - 1);
+            }
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * A 4x4 RMXP character sheet (one row per direction, one column per pattern) of filled
+     * ovals, with a mark showing which way the frame faces.
+     */
+    private static BufferedImage createCharacterSheet(int index) {
+        BufferedImage image = new BufferedImage(4 * CHARACTER_FRAME_WIDTH, 4 * CHARACTER_FRAME_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            Color body = Color.getHSBColor((index * 0.13f) % 1f, 0.7f, 0.9f);
+            for (int row = 0; row < 4; row++) {
+                for (int pattern = 0; pattern < 4; pattern++) {
+                    int x = pattern * CHARACTER_FRAME_WIDTH;
+                    int y = row * CHARACTER_FRAME_HEIGHT;
+                    int bob = pattern % 2;
+                    g2d.setColor(body);
+                    g2d.fillOval(x + 6, y + 10 + bob, CHARACTER_FRAME_WIDTH - 12, CHARACTER_FRAME_HEIGHT - 14);
+                    g2d.setColor(Color.BLACK);
+                    // Rows are down, left, right, up
+                    int markX = x + CHARACTER_FRAME_WIDTH / 2 + (row == 1 ? -6 : row == 2 ? 6 : 0);
+                    int markY = y + 20 + bob + (row == 3 ? -6 : row == 0 ? 6 : 0);
+                    g2d.fillRect(markX - 2, markY - 2, 4, 4);
+                }
+            }
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+}
@@ -2,28 +2,30 @@ package psdk.EventEditor.views;
 
 import java.awt.BorderLayout;
 import java.awt.Dimension;
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import javax.imageio.ImageIO;
 import javax.swing.JLayeredPane;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.OverlayLayout;
 import javax.swing.SwingUtilities;
 
-import libs.json.JSONArray;
 import libs.json.JSONObject;
 import psdk.EventEditor.ConfigManager;
 import psdk.EventEditor.model.Editor;
 import psdk.EventEditor.model.Event;
-import psdk.EventEditor.model.EventLoader;
-import psdk.EventEditor.model.EventPage;
-import psdk.EventEditor.model.GridDataConverter;
+import psdk.EventEditor.model.EventSpatialIndex;
+import psdk.EventEditor.model.MapDocument;
+import psdk.EventEditor.model.TileGrid;
 import psdk.EventEditor.model.YmlGetter;
 
 public class EditorView extends JPanel {
@@ -37,13 +39,17 @@ public class EditorView extends JPanel {
     private final Editor editor;
     private final String rpgMakerProjectRootPath;
     
-    // Current state
-    private File currentYmlFile;
-    private int[][][] currentTileGrid;
-    private int currentTilesetId;
-    private JSONObject currentMapJsonData;
-    private List<Event> currentMapEvents;
-    private int currentMapId;
+    // Current state, the open map is only held by currentMap
+    private MapDocument currentMap;
+    private final EventSpatialIndex currentEventIndex = new EventSpatialIndex();
+    private MapLoad currentLoad;
+    
+    // Map loads run off the EDT: one thread streams the YAML while another decodes the tileset.
+    private final ExecutorService mapLoadExecutor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "map-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
     
     // UI components
     private MapListPanel mapListPanel;
@@ -62,17 +68,10 @@ public class EditorView extends JPanel {
         this.rpgMakerProjectRootPath = projectRootPath;
         this.editor = new Editor(projectRootPath);
         
-        initializeState();
         initializeUI();
         loadLastOpenedMapIfExists();
     }
     
-    private void initializeState() {
-        currentMapId = DEFAULT_MAP_ID;
-        currentTilesetId = DEFAULT_MAP_ID;
-        currentMapEvents = new ArrayList<>();
-    }
-
     private void initializeUI() {
         setLayout(new BorderLayout());
         
@@ -116,6 +115,7 @@ public class EditorView extends JPanel {
         tileVisualizer = new TileVisualizer();
         gridVisualizer = new GridOverlayVisualizer();
         eventVisualizer = new EventVisualizer();
+        eventVisualizer.setEventIndex(currentEventIndex);
         
         // Set alignment for overlay layout
         setVisualizerAlignment();
@@ -153,7 +153,7 @@ public class EditorView extends JPanel {
     }
     
     private void createToolbar() {
-        tileGridToolbar = new TileGridToolbar(editor, currentMapId, currentMapJsonData, gridVisualizer);
+        tileGridToolbar = new TileGridToolbar(editor, currentMap, gridVisualizer);
     }
     
     private void layoutComponents() {
@@ -170,191 +170,242 @@ public class EditorView extends JPanel {
             return;
         }
         
-        currentYmlFile = ymlFile;
-        
         // Save the selected map as the last opened map
         ConfigManager.saveLastOpenedMap(ymlFile.getAbsolutePath());
         
+        if (currentLoad != null) {
+            currentLoad.cancel();
+        }
+        
+        // Looked up here, cached documents may be the one being edited and are only read on the EDT
+        MapDocument cached = editor.getCachedMap(ymlFile);
+        if (cached != null && cached.isChangedOnDisk() && !keepUnsavedEdits(cached)) {
+            editor.removeCachedMap(ymlFile);
+            cached = null;
+        }
+        
+        // Nothing of the previous map stays editable while the new one loads
+        resetVisualizerScrolls();
+        handleMapLoadFailure();
+        
+        MapLoad load = new MapLoad(ymlFile, parseMapId(ymlFile));
+        load.cached = cached;
+        if (load.cached != null) {
+            load.tilesetId = load.cached.getTilesetId();
+        }
+        currentLoad = load;
+        mapLoadExecutor.execute(() -> runMapLoad(load));
+    }
+    
+    /**
+     * Asks what to do with a map holding unsaved edits whose file was changed by another program.
+     * Returns false when the map has to be read again from disk, dropping the edits.
+     */
+    private boolean keepUnsavedEdits(MapDocument document) {
+        int choice = JOptionPane.showConfirmDialog(
+            this,
+            document.getFile().getName() + " was changed on disk since it was opened, and the map has unsaved edits.\n" +
+            "Do you want to keep your edits? Saving them will overwrite the file on disk.\n" +
+            "Choose No to reload the map from disk and discard them.",
+            "Map Changed on Disk",
+            JOptionPane.YES_NO_OPTION,
+            JOptionPane.WARNING_MESSAGE
+        );
+        return choice != JOptionPane.NO_OPTION;
+    }
+    
+    /**
+     * Worker side of a map load. The tileset image is decoded while the YAML is streamed,
+     * the grid is shown as soon as both are ready and the events are published last.
+     */
+    private void runMapLoad(MapLoad load) {
         try {
-            resetVisualizerScrolls();
-            
-            // Load map data
-            if (!loadMapData()) {
-                handleMapLoadFailure();
+            // Maps already parsed, in this session or in a previous one, skip the YAML entirely
+            MapDocument parsed = load.cached;
+            String source = "map cache";
+            if (parsed == null) {
+                parsed = editor.loadMapSnapshot(load.ymlFile, load.mapId);
+                source = "snapshot";
+            }
+            if (parsed != null) {
+                MapDocument document = parsed;
+                load.checkCancelled();
+                if (load.cached == null) {
+                    load.tilesetId = document.getTilesetId();
+                }
+                TilesetCache.Tileset tileset = loadTilesetOrNull(load.tilesetId);
+                System.out.println("[EditorView] Map " + document.getMapId() + " taken from the " + source);
+                SwingUtilities.invokeLater(() -> {
+                    publishGrid(load, document.getTileGrid(), tileset);
+                    publishMap(load, document);
+                });
                 return;
             }
             
-            // Extract and validate map ID
-            extractMapId();
+            long lastModified = load.ymlFile.lastModified();
+            int headerTilesetId = YmlGetter.readTilesetIdFromMapFile(load.ymlFile);
+            load.tilesetId = headerTilesetId;
+            CompletableFuture<TilesetCache.Tileset> tilesetFuture = new CompletableFuture<>();
+            if (headerTilesetId != 0) {
+                startTilesetLoad(headerTilesetId, tilesetFuture);
+            }
             
-            // Update editor state
-            updateEditorState();
+            CompletableFuture<TileGrid> gridFuture = new CompletableFuture<>();
+            CompletableFuture<Void> gridShown = gridFuture.thenAcceptBoth(tilesetFuture, (grid, tileset) ->
+                SwingUtilities.invokeLater(() -> publishGrid(load, grid, tileset)));
             
-            // Load map components
-            loadMapComponents();
+            List<Event> events = new ArrayList<>();
+            JSONObject mapJsonData = editor.loadMapWithEvents(load.ymlFile, event -> {
+                load.checkCancelled();
+                events.add(event);
+            }, grid -> {
+                load.checkCancelled();
+                load.tileGrid = grid;
+                gridFuture.complete(grid);
+            });
             
-            // Update visualizers
-            updateVisualizers();
+            if (mapJsonData == null) {
+                tilesetFuture.cancel(false);
+                SwingUtilities.invokeLater(() -> {
+                    if (load == currentLoad) {
+                        System.err.println("[EditorView] Could not load map JSON data");
+                        handleMapLoadFailure();
+                    }
+                });
+                return;
+            }
             
+            load.tilesetId = getMapDataObject(mapJsonData).map(YmlGetter::getTilesetIdFromJson).orElse(headerTilesetId);
+            if (headerTilesetId == 0) {
+                startTilesetLoad(load.tilesetId, tilesetFuture);
+            }
+            gridFuture.complete(null);
+            
+            MapDocument document = new MapDocument(load.mapId, load.ymlFile, lastModified, mapJsonData, load.tileGrid, events);
+            // Written before the document is published, nothing can edit it yet
+            editor.storeMapSnapshot(document);
+            gridShown.thenRun(() -> SwingUtilities.invokeLater(() -> publishMap(load, document)));
+            
+        } catch (CancellationException e) {
+            System.out.println("[EditorView] Map load cancelled: " + load.ymlFile.getName());
         } catch (Exception e) {
             System.err.println("[EditorView] Unexpected error loading map: " + e.getMessage());
             e.printStackTrace();
-            handleMapLoadFailure();
+            SwingUtilities.invokeLater(() -> {
+                if (load == currentLoad) {
+                    handleMapLoadFailure();
+                }
+            });
         }
     }
     
-    private void resetVisualizerScrolls() {
-        tileVisualizer.resetScroll();
-        gridVisualizer.scrollX = 0;
-        gridVisualizer.scrollY = 0;
-        eventVisualizer.scrollX = 0;
-        eventVisualizer.scrollY = 0;
+    /**
+     * Completes tilesetFuture with the tileset, or with null if it cannot be loaded,
+     * so that the map is still shown without it.
+     */
+    private void startTilesetLoad(int tilesetId, CompletableFuture<TilesetCache.Tileset> tilesetFuture) {
+        CompletableFuture.supplyAsync(() -> loadTilesetOrNull(tilesetId), mapLoadExecutor)
+            .whenComplete((tileset, error) -> {
+                if (error != null) {
+                    System.err.println("[EditorView] Error loading tileset " + tilesetId + ": " + error);
+                    error.printStackTrace();
+                }
+                tilesetFuture.complete(tileset);
+            });
     }
     
-    private boolean loadMapData() {
-        currentMapJsonData = editor.loadMapFromJson(currentYmlFile);
-        
-        if (currentMapJsonData == null) {
-            System.err.println("[EditorView] Could not load map JSON data");
-            return false;
+    private TilesetCache.Tileset loadTilesetOrNull(int tilesetId) {
+        try {
+            return loadTileset(tilesetId);
+        } catch (IOException | RuntimeException | OutOfMemoryError e) {
+            // Malformed PNGs make ImageIO throw runtime exceptions, huge sheets may not fit in memory
+            System.err.println("[EditorView] Error loading tileset " + tilesetId + ": " + e);
+            e.printStackTrace();
+            return null;
         }
-        
-        return true;
     }
     
-    private void extractMapId() {
-        String fileName = currentYmlFile.getName();
-        
-        if (fileName.matches(MAP_FILENAME_PATTERN)) {
-            try {
-                currentMapId = Integer.parseInt(fileName.substring(3, 6));
-            } catch (NumberFormatException e) {
-                System.err.println("[EditorView] Could not parse map ID from filename: " + fileName);
-                currentMapId = DEFAULT_MAP_ID;
-            }
-        } else {
-            System.err.println("[EditorView] Unexpected filename format: " + fileName);
-            currentMapId = DEFAULT_MAP_ID;
+    private void publishGrid(MapLoad load, TileGrid grid, TilesetCache.Tileset tileset) {
+        if (load != currentLoad || load.isCancelled()) {
+            return;
         }
+        
+        tileVisualizer.updateGrid(grid, tileset);
+        updateVisualizersWithDimensions(calculateMapDimensions(grid), new ArrayList<>());
     }
     
-    private void updateEditorState() {
-        editor.setCurrentMapDataJson(currentMapJsonData);
-        tileGridToolbar.setCurrentMapData(currentMapId, currentMapJsonData);
+    private void publishMap(MapLoad load, MapDocument document) {
+        if (load != currentLoad || load.isCancelled()) {
+            return;
+        }
+        
+        currentMap = document;
+        editor.cacheMap(currentMap);
+        tileGridToolbar.setCurrentMap(currentMap);
+        indexEvents();
+        
+        eventVisualizer.updateEvents(currentMap.getEvents(), calculateMapDimensions(currentMap.getTileGrid()));
+        currentLoad = null;
     }
     
-    private void loadMapComponents() {
-        loadEvents();
-        loadTilesetAndGrid();
+    private void resetVisualizerScrolls() {
+        tileVisualizer.resetScroll();
+        gridVisualizer.scrollX = 0;
+        gridVisualizer.scrollY = 0;
+        eventVisualizer.scrollX = 0;
+        eventVisualizer.scrollY = 0;
     }
     
-    private void loadEvents() {
-        currentMapEvents = new ArrayList<>();
+    private int parseMapId(File ymlFile) {
+        String fileName = ymlFile.getName();
         
-        if (currentMapJsonData.has("events")) {
-            Object eventsObject = currentMapJsonData.get("events");
-            if (eventsObject instanceof JSONArray) {
-                currentMapEvents = EventLoader.loadEventsFromArray((JSONArray) eventsObject);
-            } else {
-                System.out.println("[EditorView] Events key found but not a JSONArray");
+        if (fileName.matches(MAP_FILENAME_PATTERN)) {
+            try {
+                return Integer.parseInt(fileName.substring(3, 6));
+            } catch (NumberFormatException e) {
+                System.err.println("[EditorView] Could not parse map ID from filename: " + fileName);
+                return DEFAULT_MAP_ID;
             }
-        } else {
-            System.out.println("[EditorView] No events found in map data");
         }
+        System.err.println("[EditorView] Unexpected filename format: " + fileName);
+        return DEFAULT_MAP_ID;
     }
     
-    private void loadTilesetAndGrid() {
-        Optional<JSONObject> mapDataOpt = getMapDataObject();
-        
-        if (!mapDataOpt.isPresent()) {
-            System.err.println("[EditorView] Could not load map_data object");
-            return;
-        }
-        
-        JSONObject mapDataJson = mapDataOpt.get();
-        
-        // Load tileset ID
-        currentTilesetId = YmlGetter.getTilesetIdFromJson(mapDataJson);
-        
-        // Load tile grid
-        currentTileGrid = loadTileGrid(mapDataJson);
-    }
-    
-    private Optional<JSONObject> getMapDataObject() {
-        if (!currentMapJsonData.has("map_data")) {
+    private static Optional<JSONObject> getMapDataObject(JSONObject mapJsonData) {
+        if (!mapJsonData.has("map_data")) {
             return Optional.empty();
         }
         
         try {
-            return Optional.of(currentMapJsonData.getJSONObject("map_data"));
+            return Optional.of(mapJsonData.getJSONObject("map_data"));
         } catch (Exception e) {
             System.err.println("[EditorView] Error accessing map_data: " + e.getMessage());
             return Optional.empty();
         }
     }
     
-    private int[][][] loadTileGrid(JSONObject mapDataJson) {
-        if (!mapDataJson.has("grid_info")) {
-            System.err.println("[EditorView] No grid_info found in map_data");
-            return null;
-        }
-        
-        try {
-            JSONObject gridInfo = mapDataJson.getJSONObject("grid_info");
-            return GridDataConverter.convertJsonGridTo3DArray(gridInfo);
-        } catch (Exception e) {
-            System.err.println("[EditorView] Error loading tile grid: " + e.getMessage());
-            return null;
-        }
-    }
-    
-    private void updateVisualizers() {
-        try {
-            BufferedImage tilesetImage = loadTilesetImage();
-            
-            // Update tile visualizer
-            tileVisualizer.updateGrid(currentTileGrid, tilesetImage);
-            
-            // Calculate and set map dimensions
-            Dimension mapDimensions = calculateMapDimensions();
-            updateVisualizersWithDimensions(mapDimensions);
-            
-        } catch (IOException e) {
-            System.err.println("[EditorView] Error updating visualizers: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-    
-    private BufferedImage loadTilesetImage() throws IOException {
-        if (currentTilesetId == 0) {
+    private TilesetCache.Tileset loadTileset(int tilesetId) throws IOException {
+        if (tilesetId == 0) {
             System.out.println("[EditorView] No tileset to load (ID is 0)");
             return null;
         }
         
-        File tilesetFile = new File(rpgMakerProjectRootPath, 
-            "Graphics" + File.separator + "Tilesets" + File.separator + "_" + currentTilesetId + ".png");
-        
-        if (!tilesetFile.exists()) {
-            System.err.println("[EditorView] Tileset file not found: " + tilesetFile.getAbsolutePath());
-            return null;
-        }
-        
-        return ImageIO.read(tilesetFile);
+        return TilesetCache.get(rpgMakerProjectRootPath, tilesetId, tileVisualizer.getTileSize());
     }
     
-    private Dimension calculateMapDimensions() {
-        if (currentTileGrid == null || currentTileGrid.length == 0 || currentTileGrid[0].length == 0) {
+    private Dimension calculateMapDimensions(TileGrid tileGrid) {
+        if (tileGrid == null) {
             return new Dimension(0, 0);
         }
         
         int tileSize = tileVisualizer.getTileSize();
         return new Dimension(
-            currentTileGrid.length * tileSize,
-            currentTileGrid[0].length * tileSize
+            tileGrid.getWidth() * tileSize,
+            tileGrid.getHeight() * tileSize
         );
     }
     
-    private void updateVisualizersWithDimensions(Dimension mapDimensions) {
+    private void updateVisualizersWithDimensions(Dimension mapDimensions, List<Event> events) {
         // Update tile visualizer
         tileVisualizer.setPreferredSize(mapDimensions);
         tileVisualizer.revalidate();
@@ -365,113 +416,82 @@ public class EditorView extends JPanel {
         
         // Update event visualizer
         eventVisualizer.setTileSize(tileVisualizer.getTileSize());
-        eventVisualizer.updateEvents(currentMapEvents, mapDimensions);
+        eventVisualizer.updateEvents(events, mapDimensions);
     }
     
     private void handleMapLoadFailure() {
+        currentMap = null;
         resetVisualizers();
-        currentMapId = DEFAULT_MAP_ID;
-        currentMapJsonData = null;
-        tileGridToolbar.setCurrentMapData(currentMapId, currentMapJsonData);
+        tileGridToolbar.setCurrentMap(null);
     }
 
     private void resetVisualizers() {
-        currentTileGrid = null;
-        currentTilesetId = DEFAULT_MAP_ID;
-        currentMapEvents = new ArrayList<>();
+        indexEvents();
         
         tileVisualizer.updateGrid(null, null);
         gridVisualizer.updateMapDimensions(new Dimension(0, 0));
         eventVisualizer.updateEvents(new ArrayList<>(), new Dimension(0, 0));
     }
 
-    public void syncEventsToJson() {
-        if (currentMapEvents == null || currentMapJsonData == null) {
-            System.err.println("[EditorView] Cannot sync events: missing required data");
+    /**
+     * Rebuilds the spatial index used for hit testing and painting from the events of currentMap.
+     */
+    private void indexEvents() {
+        if (currentMap != null) {
+            currentEventIndex.rebuild(currentMap.getEvents());
+        } else {
+            currentEventIndex.clear();
+        }
+    }
+
+    /**
+     * Called once an event of the current map has been edited. The edit was made on the
+     * document itself, only the view has to follow.
+     */
+    public void onEventModified(Event event) {
+        if (currentMap == null) {
+            System.err.println("[EditorView] Event modified without any open map");
             return;
         }
         
-        SwingUtilities.invokeLater(() -> {
-            try {
-                JSONArray eventsJsonArray = convertEventsToJsonArray();
-                currentMapJsonData.put("events", eventsJsonArray);
-                
-                editor.setCurrentMapDataJson(currentMapJsonData);
-                tileGridToolbar.setCurrentMapData(currentMapId, currentMapJsonData);
-                
-                System.out.println("[EditorView] Events synchronized successfully");
-                
-            } catch (Exception e) {
-                System.err.println("[EditorView] Error synchronizing events: " + e.getMessage());
-                e.printStackTrace();
-            }
-        });
+        eventVisualizer.repaint();
+        System.out.println("[EditorView] Event " + event.getId() + " modified, map " + currentMap.getMapId()
+            + (currentMap.isModified() ? " has unsaved changes" : " unchanged"));
     }
     
-    private JSONArray convertEventsToJsonArray() {
-        JSONArray eventsArray = new JSONArray();
-        
-        for (Event event : currentMapEvents) {
-            try {
-                JSONObject eventJson = convertEventToJson(event);
-                eventsArray.put(eventJson);
-            } catch (Exception e) {
-                System.err.println("[EditorView] Error converting event " + event.getId() + ": " + e.getMessage());
-            }
+    // Getters for other components that might need access
+    public Editor getEditor() { return editor; }
+    public MapDocument getCurrentMap() { return currentMap; }
+
+    /**
+     * One map load in progress, cancelled as soon as another map gets selected.
+     */
+    private static final class MapLoad {
+        final File ymlFile;
+        final int mapId;
+        // Set on the EDT before the load is started
+        MapDocument cached;
+        volatile int tilesetId;
+        volatile TileGrid tileGrid;
+        private volatile boolean cancelled;
+
+        MapLoad(File ymlFile, int mapId) {
+            this.ymlFile = ymlFile;
+            this.mapId = mapId;
         }
-        
-        return eventsArray;
-    }
 
-    private JSONObject convertEventToJson(Event event) {
-        JSONObject eventJson = new JSONObject();
-        
-        eventJson.put("id", event.getId());
-        eventJson.put("name", event.getName());
-        eventJson.put("x", event.getX());
-        eventJson.put("y", event.getY());
-        
-        JSONArray pagesArray = new JSONArray();
-        if (event.getPages() != null) {
-            for (EventPage page : event.getPages()) {
-                JSONObject pageJson = convertEventPageToJson(page);
-                pagesArray.put(pageJson);
-            }
+        void cancel() {
+            cancelled = true;
         }
-        eventJson.put("pages", pagesArray);
-        
-        return eventJson;
-    }
 
-    private JSONObject convertEventPageToJson(EventPage page) {
-        JSONObject pageJson = new JSONObject();
-        
-        pageJson.put("page_index", page.getPage_index());
-        pageJson.put("move_type", page.getMove_type());
-        pageJson.put("trigger", page.getTrigger());
-        pageJson.put("through", page.isThrough());
-        pageJson.put("move_frequency", page.getMoveFrequency());
-        pageJson.put("always_on_top", page.isAlwaysOnTop());
-        pageJson.put("walk_anime", page.isWalkAnime());
-        pageJson.put("move_speed", page.getMoveSpeed());
-        pageJson.put("step_anime", page.isStepAnime());
-        pageJson.put("direction_fix", page.isDirectionFix());
-        pageJson.put("graphic", page.getGraphic());
-        pageJson.put("condition", page.getCondition());
-        pageJson.put("move_route", page.getMoveRoute());
-        
-        JSONArray commandsArray = page.toCommandsJsonArray();
-        pageJson.put("list", commandsArray);
-        
-        return pageJson;
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        void checkCancelled() {
+            if (cancelled) {
+                throw new CancellationException("Map load cancelled: " + ymlFile.getName());
+            }
+        }
     }
-    
-    // Getters for other components that might need access
-    public Editor getEditor() { return editor; }
-    public File getCurrentYmlFile() { return currentYmlFile; }
-    public int[][][] getCurrentTileGrid() { return currentTileGrid; }
-    public int getCurrentTilesetId() { return currentTilesetId; }
-    public JSONObject getCurrentMapJsonData() { return currentMapJsonData; }
-    public List<Event> getCurrentMapEvents() { return currentMapEvents; }
-    public int getCurrentMapId() { return currentMapId; }
-}
\ No newline at end of file
+}
@@ -42,7 +42,7 @@ public class EventCommandEditorDialog extends JDialog {
             this.modifiedCommand = new EventCommand(
                 command.getCode(),
                 command.getIndent(),
-                command.getParameters() != null ? new JSONArray(command.getParameters().toString()) : new JSONArray()
+                command.toParametersJsonArray() != null ? new JSONArray(command.toParametersJsonArray().toString()) : new JSONArray()
             );
         } catch (JSONException e) {
             System.err.println("Error deep copying EventCommand parameters: " + e.getMessage());
@@ -3,14 +3,17 @@ package psdk.EventEditor.views;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Font;
+import java.awt.Insets;
 
 import javax.swing.BorderFactory;
 import javax.swing.DefaultListCellRenderer;
 import javax.swing.JLabel;
 import javax.swing.JList;
+import javax.swing.border.Border;
 
 import psdk.EventEditor.model.EventCommand;
 import psdk.EventEditor.model.EventEditorDialog.CommandDisplayFormatter;
+import psdk.EventEditor.model.EventEditorDialog.CommandListPanelPackage.CommandIndentModel;
 import psdk.EventEditor.model.EventEditorDialog.CommandListPanelPackage.IndentCalculator;
 
 public class EventCommandListCellRenderer extends DefaultListCellRenderer {
@@ -19,41 +22,92 @@ public class EventCommandListCellRenderer extends DefaultListCellRenderer {
     private static final Color SELECTION_FG_COLOR = Color.WHITE;
     private static final Color DEFAULT_FG_COLOR = Color.BLACK;
     private static final Font DEFAULT_FONT = new Font("Monospaced", Font.PLAIN, 12);
+    private static final Border COMMAND_BORDER = BorderFactory.createEmptyBorder(1, 2, 1, 2);
 
     private final CommandDisplayFormatter displayFormatter = new CommandDisplayFormatter();
     private final IndentCalculator indentCalculator = new IndentCalculator();
+    private final CommandIndentModel indentModel;
+
+    public EventCommandListCellRenderer() {
+        this(null);
+    }
+
+    /**
+     * Renderer reading the indents from a precomputed model, for long lists where
+     * computing them per row would rescan the list for every cell.
+     */
+    public EventCommandListCellRenderer(CommandIndentModel indentModel) {
+        this.indentModel = indentModel;
+    }
 
     @Override
     public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
-        JLabel label = (JLabel) super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
-
-        label.setFont(DEFAULT_FONT);
-        if (isSelected) {
-            label.setBackground(SELECTION_BG_COLOR);
-            label.setForeground(SELECTION_FG_COLOR);
-        } else {
-            label.setBackground(list.getBackground());
-            label.setForeground(DEFAULT_FG_COLOR);
+        if (!(value instanceof EventCommand)) {
+            JLabel label = (JLabel) super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            applyStyle(label, list, isSelected);
+            label.setToolTipText(null);
+            return label;
         }
 
-        if (value instanceof EventCommand) {
-            EventCommand command = (EventCommand) value;
-            StringBuilder text = new StringBuilder();
+        EventCommand command = (EventCommand) value;
+        int indentLevel = indentModel != null
+            ? indentModel.getIndent(index)
+            : indentCalculator.calculateIndent(command, list, index);
+
+        String displayLine = getDisplayLine(command, indentLevel);
 
-            int indentLevel = indentCalculator.calculateIndent(command, list, index);
+        JLabel label = (JLabel) super.getListCellRendererComponent(list, displayLine, index, isSelected, cellHasFocus);
+        applyStyle(label, list, isSelected);
+        label.setBorder(COMMAND_BORDER);
+        label.setToolTipText(command.getCachedToolTip());
+        return label;
+    }
 
+    /**
+     * Text of the row of a command. The line is only rebuilt when the command or its indent
+     * changed, the formatter parses the parameters and the default renderer would call the
+     * costly toString().
+     */
+    public String getDisplayLine(EventCommand command, int indentLevel) {
+        String displayLine = command.getCachedDisplayLine(indentLevel);
+        if (displayLine == null) {
+            StringBuilder text = new StringBuilder();
             for (int i = 0; i < indentLevel; i++) {
                 text.append("  ");
             }
-
             text.append("◆ ");
             text.append(displayFormatter.getCommandDisplayName(command));
 
-            label.setText(text.toString());
-            label.setBorder(BorderFactory.createEmptyBorder(1, 2, 1, 2));
+            displayLine = text.toString();
+            command.setCachedDisplayLine(displayLine, indentLevel, displayFormatter.getCommandToolTip(command));
+        }
+        return displayLine;
+    }
+
+    /**
+     * Height of a command row, for JList.setFixedCellHeight.
+     */
+    public int getRowHeight(JList<?> list) {
+        Insets insets = COMMAND_BORDER.getBorderInsets(this);
+        return list.getFontMetrics(DEFAULT_FONT).getHeight() + insets.top + insets.bottom;
+    }
+
+    /**
+     * Width of a row holding the given number of characters, for JList.setFixedCellWidth.
+     */
+    public int getColumnsWidth(JList<?> list, int columns) {
+        Insets insets = COMMAND_BORDER.getBorderInsets(this);
+        return list.getFontMetrics(DEFAULT_FONT).charWidth('m') * columns + insets.left + insets.right;
+    }
+
+    private void applyStyle(JLabel label, JList<?> list, boolean isSelected) {
+        label.setFont(DEFAULT_FONT);
+        if (isSelected) {
+            label.setBackground(SELECTION_BG_COLOR);
+            label.setForeground(SELECTION_FG_COLOR);
         } else {
-            label.setText(value != null ? value.toString() : "");
+            label.setBackground(list.getBackground());
+            label.setForeground(DEFAULT_FG_COLOR);
         }
-        return label;
     }
-}
\ No newline at end of file
+}
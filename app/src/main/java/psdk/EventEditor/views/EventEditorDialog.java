@@ -156,6 +156,12 @@ public class EventEditorDialog extends JDialog implements CommandListModificatio
     @Override
     public void onCommandsModified() {
         this.eventWasModified = true;
+        int pageIndex = pageTabbedPane.getSelectedIndex();
+        if (pageIndex >= 0 && pageIndex < event.getPages().size()) {
+            event.getPages().get(pageIndex).markDirty();
+        } else {
+            event.markDirty();
+        }
         System.out.println("DEBUG: EventEditorDialog received notification: commands modified.");
     }
 
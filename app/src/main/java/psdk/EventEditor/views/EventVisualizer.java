@@ -11,10 +11,12 @@ import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 
 import psdk.EventEditor.model.Event;
+import psdk.EventEditor.model.EventSpatialIndex;
 
 public class EventVisualizer extends JPanel {
 
     private List<Event> events;
+    private EventSpatialIndex eventIndex = new EventSpatialIndex(); // Maintained by EditorView
     private int tileSize = 32; // be sure it's the same in TileVisualizer
 
     public int scrollX = 0; // Synchronised with TileVisualizer
@@ -51,6 +53,14 @@ public class EventVisualizer extends JPanel {
         return events;
     }
 
+    public void setEventIndex(EventSpatialIndex eventIndex) {
+        this.eventIndex = eventIndex;
+    }
+
+    public EventSpatialIndex getEventIndex() {
+        return eventIndex;
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
@@ -61,19 +71,26 @@ public class EventVisualizer extends JPanel {
 
         Graphics2D g2d = (Graphics2D) g;
 
-        Rectangle clipRect = g.getClipBounds(); 
+        Rectangle clipRect = g.getClipBounds();
+        if (clipRect == null) {
+            clipRect = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+
+        // Only the events of the tiles under the clip are visited.
+        int minCol = Math.floorDiv(clipRect.x - scrollX, tileSize);
+        int minRow = Math.floorDiv(clipRect.y - scrollY, tileSize);
+        int maxCol = Math.floorDiv(clipRect.x + clipRect.width - 1 - scrollX, tileSize);
+        int maxRow = Math.floorDiv(clipRect.y + clipRect.height - 1 - scrollY, tileSize);
 
-        for (Event event : events) {
-            int x = event.getX() * tileSize + scrollX; 
+        eventIndex.forEachInArea(minCol, minRow, maxCol, maxRow, event -> {
+            int x = event.getX() * tileSize + scrollX;
             int y = event.getY() * tileSize + scrollY;
 
-            if (clipRect.intersects(x, y, tileSize, tileSize)) {
-                g2d.setColor(Color.RED);
-                g2d.fillRect(x, y, tileSize, tileSize);
-                g2d.setColor(Color.WHITE);
-                g2d.drawString("E" + event.getId(), x + 5, y + tileSize / 2 + 5);
-            }
-        }
+            g2d.setColor(Color.RED);
+            g2d.fillRect(x, y, tileSize, tileSize);
+            g2d.setColor(Color.WHITE);
+            g2d.drawString("E" + event.getId(), x + 5, y + tileSize / 2 + 5);
+        });
     }
 
     public void setEditorView(EditorView editorView) {
@@ -4,23 +4,37 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
-import java.awt.Font;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import javax.swing.AbstractAction;
+import javax.swing.AbstractListModel;
 import javax.swing.BorderFactory;
-import javax.swing.BoxLayout;
-import javax.swing.JButton;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JComponent;
+import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTextField;
-import javax.swing.UIManager;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.border.Border;
 import javax.swing.border.TitledBorder;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 
 import psdk.EventEditor.model.Editor;
+import psdk.EventEditor.model.MapInfoIndex;
+import psdk.EventEditor.model.MapSearchIndex;
 import psdk.EventEditor.model.YmlGetter;
 
 public class MapListPanel extends JPanel {
@@ -31,18 +45,38 @@ public class MapListPanel extends JPanel {
     private static final Color BACKGROUND_DARKER = new Color(0x1d1c22);
     private static final Color TEXT_COLOR = new Color(0xe0e0e0);
 
+    // Delay after the last keystroke before the search runs
+    private static final int SEARCH_DELAY_MS = 120;
+
+    private static final Border ROW_BORDER = BorderFactory.createCompoundBorder(
+        BorderFactory.createLineBorder(BACKGROUND_DARKER, 1),
+        BorderFactory.createEmptyBorder(8, 12, 8, 12)
+    );
+
     public interface MapSelectionCallback {
         void onMapSelected(File ymlFile);
     }
 
     private Editor editor;
     private MapSelectionCallback callback;
-    private String projectRootPath; 
-    
+    private String projectRootPath;
+
     private JTextField searchField;
-    private JPanel mapButtonsPanel;
+    private JList<MapSearchIndex.Entry> mapList;
+    private MapListModel mapListModel;
     private List<File> allYmlFiles; // The YML files are the Map files.
+    private volatile MapSearchIndex searchIndex = new MapSearchIndex(Collections.emptyList());
     private int maxButtonWidth; // Store the maximum width needed
+    private int hoveredIndex = -1;
+
+    // Searches run off the EDT, only the result of the latest query is shown
+    private final Timer searchTimer;
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "map-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int searchGeneration;
 
     public MapListPanel(Editor editor, MapSelectionCallback callback, String projectRootPath) {
         this.editor = editor;
@@ -50,10 +84,10 @@ public class MapListPanel extends JPanel {
         this.projectRootPath = projectRootPath;
 
         setLayout(new BorderLayout());
-        
+
         // Apply dark theme styling
         setBackground(BACKGROUND_PRIMARY);
-        
+
         // Create styled border
         TitledBorder titledBorder = BorderFactory.createTitledBorder("Maps");
         titledBorder.setTitleColor(TEXT_COLOR);
@@ -72,173 +106,231 @@ public class MapListPanel extends JPanel {
         searchField.setToolTipText("Rechercher une map par nom ou numéro...");
         add(searchField, BorderLayout.NORTH);
 
+        searchTimer = new Timer(SEARCH_DELAY_MS, e -> filterMapButtons());
+        searchTimer.setRepeats(false);
         searchField.getDocument().addDocumentListener(new DocumentListener() {
             @Override
             public void insertUpdate(DocumentEvent e) {
-                filterMapButtons();
+                searchTimer.restart();
             }
 
             @Override
             public void removeUpdate(DocumentEvent e) {
-                filterMapButtons();
+                searchTimer.restart();
             }
 
             @Override
             public void changedUpdate(DocumentEvent e) {
-                filterMapButtons();
+                searchTimer.restart();
             }
         });
 
-        mapButtonsPanel = new JPanel();
-        mapButtonsPanel.setLayout(new BoxLayout(mapButtonsPanel, BoxLayout.Y_AXIS));
-        mapButtonsPanel.setBackground(BACKGROUND_PRIMARY);
+        // Only the visible rows are painted, with a single renderer
+        mapListModel = new MapListModel();
+        mapList = new JList<>(mapListModel);
+        mapList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        mapList.setBackground(BACKGROUND_PRIMARY);
+        mapList.setCellRenderer(new MapCellRenderer());
+        installListListeners();
 
-        JScrollPane scrollPane = new JScrollPane(mapButtonsPanel);
+        JScrollPane scrollPane = new JScrollPane(mapList);
         scrollPane.setBackground(BACKGROUND_PRIMARY);
         scrollPane.getViewport().setBackground(BACKGROUND_PRIMARY);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
         scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
-        
+
         // Style scrollbars
         scrollPane.getVerticalScrollBar().setBackground(BACKGROUND_SECONDARY);
         scrollPane.getHorizontalScrollBar().setBackground(BACKGROUND_SECONDARY);
-        
+
         add(scrollPane, BorderLayout.CENTER);
 
-        allYmlFiles = editor.getYmlFiles(); 
+        allYmlFiles = editor.getYmlFiles();
+        buildSearchIndex();
         calculateMaxButtonWidth(); // Calculate the maximum width needed
-        
+
         // Set minimum size for the entire panel to prevent shrinking
         Dimension minSize = new Dimension(maxButtonWidth + 30, 200); // +30 for scrollbar and padding
         setMinimumSize(minSize);
         setPreferredSize(minSize);
-        
-        loadMapButtons(mapButtonsPanel);
+
+        mapListModel.setEntries(searchIndex.getEntries());
+
+        // MapInfos.rxdata.yml edited in RMXP while the editor is open
+        if (projectRootPath != null && !projectRootPath.isEmpty()) {
+            MapInfoIndex.forProject(projectRootPath).addChangeListener(() -> SwingUtilities.invokeLater(() -> {
+                buildSearchIndex();
+                calculateMaxButtonWidth();
+                filterMapButtons();
+            }));
+        }
     }
 
-    private void calculateMaxButtonWidth() {
-        maxButtonWidth = 0;
-        
+    private void installListListeners() {
+        MouseAdapter mouseAdapter = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = rowAt(e);
+                if (index >= 0) {
+                    selectMap(index);
+                }
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoveredIndex(rowAt(e));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoveredIndex(-1);
+            }
+        };
+        mapList.addMouseListener(mouseAdapter);
+        mapList.addMouseMotionListener(mouseAdapter);
+
+        mapList.getInputMap(JComponent.WHEN_FOCUSED).put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "openMap");
+        mapList.getActionMap().put("openMap", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                selectMap(mapList.getSelectedIndex());
+            }
+        });
+    }
+
+    private int rowAt(MouseEvent e) {
+        int index = mapList.locationToIndex(e.getPoint());
+        return index >= 0 && mapList.getCellBounds(index, index).contains(e.getPoint()) ? index : -1;
+    }
+
+    private void setHoveredIndex(int index) {
+        if (index != hoveredIndex) {
+            repaintRow(hoveredIndex);
+            hoveredIndex = index;
+            repaintRow(hoveredIndex);
+        }
+    }
+
+    private void repaintRow(int index) {
+        if (index >= 0 && index < mapListModel.getSize()) {
+            mapList.repaint(mapList.getCellBounds(index, index));
+        }
+    }
+
+    private void selectMap(int index) {
+        if (index >= 0 && index < mapListModel.getSize() && callback != null) {
+            callback.onMapSelected(mapListModel.getElementAt(index).file);
+        }
+    }
+
+    private void buildSearchIndex() {
+        List<MapSearchIndex.Entry> entries = new ArrayList<>();
         if (allYmlFiles != null) {
             for (File file : allYmlFiles) {
-                String buttonText = getButtonTextForFile(file);
-                
-                // Create a temporary button to measure its preferred width
-                JButton tempButton = new JButton(buttonText);
-                int buttonWidth = tempButton.getPreferredSize().width;
-                
-                if (buttonWidth > maxButtonWidth) {
-                    maxButtonWidth = buttonWidth;
+                String mapNumberStr = getMapNumberForFile(file);
+                String mapName = YmlGetter.getMapName(file, projectRootPath);
+                if (mapName == null || mapName.isEmpty()) {
+                    mapName = file.getName().replace(".rxdata.yml", "");
                 }
+                entries.add(new MapSearchIndex.Entry(file, mapNumberStr, mapName, mapNumberStr + " - " + mapName));
             }
         }
-        
-        // Add some padding to ensure buttons don't get clipped
+        searchIndex = new MapSearchIndex(entries);
+    }
+
+    private void calculateMaxButtonWidth() {
+        maxButtonWidth = 0;
+
+        // A single renderer measures every label, no component per map
+        MapCellRenderer measure = new MapCellRenderer();
+        measure.setBorder(ROW_BORDER);
+        for (MapSearchIndex.Entry entry : searchIndex.getEntries()) {
+            measure.setText(entry.label);
+            int buttonWidth = measure.getPreferredSize().width;
+
+            if (buttonWidth > maxButtonWidth) {
+                maxButtonWidth = buttonWidth;
+            }
+        }
+
+        // Add some padding to ensure rows don't get clipped
         maxButtonWidth += 20;
+        measure.setText("000 - Map");
+        mapList.setFixedCellWidth(maxButtonWidth);
+        mapList.setFixedCellHeight(measure.getPreferredSize().height);
     }
 
-    private String getButtonTextForFile(File file) {
+    private String getMapNumberForFile(File file) {
         String mapFileName = file.getName();
         String mapNumberStr = "";
-        
+
         if (mapFileName.startsWith("Map") && mapFileName.length() >= 6) {
             mapNumberStr = mapFileName.substring(3, 6);
             if (!mapNumberStr.matches("\\d{3}")) {
                 mapNumberStr = "???";
             }
         } else if (mapFileName.equalsIgnoreCase("MapInfos.rxdata.yml")) {
-            mapNumberStr = "SYS"; 
+            mapNumberStr = "SYS";
         }
+        return mapNumberStr;
+    }
 
-        String mapName = YmlGetter.getMapName(file, projectRootPath);
-
-        if (mapName != null && !mapName.isEmpty()) {
-            return mapNumberStr + " - " + mapName;
-        } else {
-            return mapNumberStr + " - " + mapFileName.replace(".rxdata.yml", "");
-        }
+    private void filterMapButtons() {
+        int generation = ++searchGeneration;
+        String searchText = searchField.getText();
+        MapSearchIndex index = searchIndex;
+        searchExecutor.execute(() -> {
+            List<MapSearchIndex.Entry> results = index.search(searchText);
+            SwingUtilities.invokeLater(() -> {
+                if (generation == searchGeneration) {
+                    hoveredIndex = -1;
+                    mapListModel.setEntries(results);
+                }
+            });
+        });
     }
 
-    private void loadMapButtons(JPanel panelToLoadInto) {
-        panelToLoadInto.removeAll();
-        
-        List<File> filesToDisplay;
-        String searchText = searchField.getText().toLowerCase();
-
-        if (searchText.isEmpty()) {
-            filesToDisplay = allYmlFiles;
-        } else {
-            // Filter map results corresponding to the search field input
-            filesToDisplay = allYmlFiles.stream()
-                .filter(file -> {
-                    String mapFileName = file.getName();
-                    String mapNumberStr = "";
-                    if (mapFileName.startsWith("Map") && mapFileName.length() >= 6) {
-                        mapNumberStr = mapFileName.substring(3, 6);
-                    }
-                    String mapName = YmlGetter.getMapName(file, projectRootPath);
-                    if (mapName == null || mapName.isEmpty()) {
-                        mapName = mapFileName.replace(".rxdata.yml", "");
-                    }
-                    return mapNumberStr.contains(searchText) || mapName.toLowerCase().contains(searchText);
-                })
-                .collect(Collectors.toList());
-        }
+    /**
+     * Current search results, replaced as a whole on each search.
+     */
+    private static final class MapListModel extends AbstractListModel<MapSearchIndex.Entry> {
+        private List<MapSearchIndex.Entry> entries = Collections.emptyList();
 
-        if (filesToDisplay != null) {
-            for (File file : filesToDisplay) {
-                String buttonText = getButtonTextForFile(file);
-                
-                JButton mapButton = createStyledButton(buttonText);
-                mapButton.setAlignmentX(Component.LEFT_ALIGNMENT);
-                
-                // Set both maximum and preferred width to the calculated maximum
-                Dimension buttonSize = new Dimension(maxButtonWidth, mapButton.getMinimumSize().height);
-                mapButton.setMaximumSize(buttonSize);
-                mapButton.setPreferredSize(buttonSize);
-
-                mapButton.addActionListener(e -> {
-                    if (callback != null) {
-                        callback.onMapSelected(file);
-                    }
-                });
-                panelToLoadInto.add(mapButton);
+        void setEntries(List<MapSearchIndex.Entry> newEntries) {
+            int oldSize = entries.size();
+            entries = newEntries;
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+            if (!newEntries.isEmpty()) {
+                fireIntervalAdded(this, 0, newEntries.size() - 1);
             }
         }
-        panelToLoadInto.revalidate();
-        panelToLoadInto.repaint();
-    }
 
-    private JButton createStyledButton(String text) {
-        JButton button = new JButton(text);
-        
-        // Base styling
-        button.setBackground(BACKGROUND_SECONDARY);
-        button.setForeground(TEXT_COLOR);
-        button.setFocusPainted(false);
-        button.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(BACKGROUND_DARKER, 1),
-            BorderFactory.createEmptyBorder(8, 12, 8, 12)
-        ));
-        
-        // Hover effect
-        button.addMouseListener(new java.awt.event.MouseAdapter() {
-            @Override
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                button.setBackground(BACKGROUND_DARKER);
-            }
-            
-            @Override
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                button.setBackground(BACKGROUND_SECONDARY);
-            }
-        });
-        
-        return button;
+        @Override
+        public int getSize() {
+            return entries.size();
+        }
+
+        @Override
+        public MapSearchIndex.Entry getElementAt(int index) {
+            return entries.get(index);
+        }
     }
 
-    private void filterMapButtons() {
-        loadMapButtons(mapButtonsPanel);
+    /**
+     * Draws a row like the map buttons, darker when hovered or selected.
+     */
+    private final class MapCellRenderer extends DefaultListCellRenderer {
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            setBackground(isSelected || index == hoveredIndex ? BACKGROUND_DARKER : BACKGROUND_SECONDARY);
+            setForeground(TEXT_COLOR);
+            setBorder(ROW_BORDER);
+            return this;
+        }
     }
-}
\ No newline at end of file
+}
@@ -3,8 +3,6 @@ package psdk.EventEditor.views;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseWheelEvent;
-import java.util.List;
-
 import javax.swing.JFrame;
 import javax.swing.SwingUtilities;
 
@@ -99,43 +97,39 @@ public class MouseListener extends MouseAdapter implements java.awt.event.MouseW
             int mapClickX = clickX - eventVisualizer.scrollX;
             int mapClickY = clickY - eventVisualizer.scrollY;
 
-            int clickedTileCol = mapClickX / tileSize;
-            int clickedTileRow = mapClickY / tileSize;
+            int clickedTileCol = Math.floorDiv(mapClickX, tileSize);
+            int clickedTileRow = Math.floorDiv(mapClickY, tileSize);
 
             System.out.println("Clic à la tuile : (" + clickedTileCol + ", " + clickedTileRow + ")");
 
-            // Iterate through all events and check if the click is inside
-            List<Event> events = eventVisualizer.getEvents();
-            if (events != null) {
-                for (Event event : events) {
-                    if (event.getX() == clickedTileCol && event.getY() == clickedTileRow) {
-                        System.out.println("Click corresponds to an event located at : (" + event.getX() + ", " + event.getY() + "):");
-                        System.out.println(event.toString());
-
-
-                        JFrame ownerFrame = (JFrame) SwingUtilities.getWindowAncestor(e.getComponent());
-                        if (ownerFrame != null) {
-                            // Build callback for that specific event that will be edited in the dialog window.
-                            // The 'modifiedEvent' parameter in the lambda expression represents the Event object
-                            // that will be returned by EventEditorDialog after the user has made modifications
-                            // and closed the dialog. This callback ensures that the EditorView is notified
-                            // to synchronize the updated event data back into the current map's JSON structure.
-                            EventEditorDialog.EventModificationCallback callback = (modifiedEvent) -> {
-                                System.out.println("Event modified, synchronizing to JSON...");
-                                if (editorView != null) {
-                                    editorView.syncEventsToJson();
-                                }
-                            };
-                            
-                            EventEditorDialog dialog = new EventEditorDialog(ownerFrame, event, callback);
-                            dialog.setVisible(true);
-                        } else {
-                            System.err.println("Error: Could not find parent JFrame to open event editor.");
+            // Look the clicked tile up in the spatial index instead of scanning every event
+            Event event = eventVisualizer.getEventIndex().getEventAt(clickedTileCol, clickedTileRow);
+            if (event != null) {
+                System.out.println("Click corresponds to an event located at : (" + event.getX() + ", " + event.getY() + "):");
+                System.out.println(event.toString());
+
+
+                JFrame ownerFrame = (JFrame) SwingUtilities.getWindowAncestor(e.getComponent());
+                if (ownerFrame != null) {
+                    // Build callback for that specific event that will be edited in the dialog window.
+                    // The 'modifiedEvent' parameter in the lambda expression represents the Event object
+                    // that will be returned by EventEditorDialog after the user has made modifications
+                    // and closed the dialog. The event belongs to the open MapDocument, so the
+                    // EditorView only has to refresh what it shows.
+                    EventEditorDialog.EventModificationCallback callback = (modifiedEvent) -> {
+                        System.out.println("Event modified, refreshing the map view...");
+                        if (editorView != null) {
+                            editorView.onEventModified(modifiedEvent);
                         }
-
-                        return;
-                    }
+                    };
+                    
+                    EventEditorDialog dialog = new EventEditorDialog(ownerFrame, event, callback);
+                    dialog.setVisible(true);
+                } else {
+                    System.err.println("Error: Could not find parent JFrame to open event editor.");
                 }
+
+                return;
             }
             System.out.println("No event found at this click position.");
         }
@@ -23,11 +23,11 @@ public class ShowEventCommand {
         System.out.println("  Indent: \"" + command.getIndent() + "\"");
         
         // Display parameters
-        if (command.getParameters() != null && command.getParameters().length() > 0) {
-            System.out.println("  Parameters (" + command.getParameters().length() + "):");
-            for (int paramIndex = 0; paramIndex < command.getParameters().length(); paramIndex++) {
+        if (command.readParameters() != null && command.readParameters().length() > 0) {
+            System.out.println("  Parameters (" + command.readParameters().length() + "):");
+            for (int paramIndex = 0; paramIndex < command.readParameters().length(); paramIndex++) {
                 try {
-                    Object param = command.getParameters().get(paramIndex);
+                    Object param = command.readParameters().get(paramIndex);
                     System.out.println("    [" + paramIndex + "] " + param + " (" + param.getClass().getSimpleName() + ")");
                 } catch (Exception e) {
                     System.out.println("    [" + paramIndex + "] <error reading parameter>");
@@ -86,8 +86,8 @@ public class ShowEventCommand {
      * Interpret Show Text command parameters
      */
     private static void interpretShowTextParameters(EventCommand command) {
-        if (command.getParameters() != null && command.getParameters().length() > 0) {
-            System.out.println("  >> Text: " + command.getParameters().optString(0, ""));
+        if (command.readParameters() != null && command.readParameters().length() > 0) {
+            System.out.println("  >> Text: " + command.readParameters().optString(0, ""));
         }
     }
     
@@ -95,9 +95,9 @@ public class ShowEventCommand {
      * Interpret Show Choices command parameters
      */
     private static void interpretShowChoicesParameters(EventCommand command) {
-        if (command.getParameters() != null && command.getParameters().length() > 0) {
+        if (command.readParameters() != null && command.readParameters().length() > 0) {
             try {
-                Object choicesParam = command.getParameters().get(0);
+                Object choicesParam = command.readParameters().get(0);
                 if (choicesParam instanceof libs.json.JSONArray) {
                     libs.json.JSONArray choices = (libs.json.JSONArray) choicesParam;
                     System.out.println("  >> Choices:");
@@ -115,11 +115,11 @@ public class ShowEventCommand {
      * Interpret Control Switches command parameters
      */
     private static void interpretControlSwitchesParameters(EventCommand command) {
-        if (command.getParameters() != null && command.getParameters().length() >= 3) {
+        if (command.readParameters() != null && command.readParameters().length() >= 3) {
             try {
-                int startSwitch = command.getParameters().getInt(0);
-                int endSwitch = command.getParameters().getInt(1);
-                int value = command.getParameters().getInt(2);
+                int startSwitch = command.readParameters().getInt(0);
+                int endSwitch = command.readParameters().getInt(1);
+                int value = command.readParameters().getInt(2);
                 
                 System.out.println("  >> Switch Range: " + startSwitch + " to " + endSwitch);
                 System.out.println("  >> Value: " + (value == 0 ? "OFF" : "ON"));
@@ -133,12 +133,12 @@ public class ShowEventCommand {
      * Interpret Control Variables command parameters
      */
     private static void interpretControlVariablesParameters(EventCommand command) {
-        if (command.getParameters() != null && command.getParameters().length() >= 4) {
+        if (command.readParameters() != null && command.readParameters().length() >= 4) {
             try {
-                int startVar = command.getParameters().getInt(0);
-                int endVar = command.getParameters().getInt(1);
-                int operation = command.getParameters().getInt(2);
-                int operand = command.getParameters().getInt(3);
+                int startVar = command.readParameters().getInt(0);
+                int endVar = command.readParameters().getInt(1);
+                int operation = command.readParameters().getInt(2);
+                int operand = command.readParameters().getInt(3);
                 
                 System.out.println("  >> Variable Range: " + startVar + " to " + endVar);
                 System.out.println("  >> Operation: " + getVariableOperationName(operation));
@@ -153,12 +153,12 @@ public class ShowEventCommand {
      * Interpret Transfer Player command parameters
      */
     private static void interpretTransferPlayerParameters(EventCommand command) {
-        if (command.getParameters() != null && command.getParameters().length() >= 5) {
+        if (command.readParameters() != null && command.readParameters().length() >= 5) {
             try {
-                int mapId = command.getParameters().getInt(1);
-                int x = command.getParameters().getInt(2);
-                int y = command.getParameters().getInt(3);
-                int direction = command.getParameters().getInt(4);
+                int mapId = command.readParameters().getInt(1);
+                int x = command.readParameters().getInt(2);
+                int y = command.readParameters().getInt(3);
+                int direction = command.readParameters().getInt(4);
                 
                 System.out.println("  >> Map ID: " + mapId);
                 System.out.println("  >> Position: (" + x + ", " + y + ")");
@@ -173,9 +173,9 @@ public class ShowEventCommand {
      * Interpret Play BGM command parameters
      */
     private static void interpretPlayBGMParameters(EventCommand command) {
-        if (command.getParameters() != null && command.getParameters().length() > 0) {
+        if (command.readParameters() != null && command.readParameters().length() > 0) {
             try {
-                Object bgmParam = command.getParameters().get(0);
+                Object bgmParam = command.readParameters().get(0);
                 if (bgmParam instanceof libs.json.JSONObject) {
                     libs.json.JSONObject bgm = (libs.json.JSONObject) bgmParam;
                     System.out.println("  >> BGM Name: " + bgm.optString("name", ""));
@@ -192,8 +192,8 @@ public class ShowEventCommand {
      * Interpret Script command parameters
      */
     private static void interpretScriptParameters(EventCommand command) {
-        if (command.getParameters() != null && command.getParameters().length() > 0) {
-            System.out.println("  >> Script: " + command.getParameters().optString(0, ""));
+        if (command.readParameters() != null && command.readParameters().length() > 0) {
+            System.out.println("  >> Script: " + command.readParameters().optString(0, ""));
         }
     }
     
@@ -1,7 +1,7 @@
 package psdk.EventEditor.views;
 
 import psdk.EventEditor.model.Editor;
-import libs.json.JSONObject;
+import psdk.EventEditor.model.MapDocument;
 
 import javax.swing.JButton;
 import javax.swing.JToolBar;
@@ -20,14 +20,12 @@ public class TileGridToolbar extends JToolBar {
     private static final Color TEXT_COLOR = new Color(0xe0e0e0);
 
     private Editor editor;
-    private int currentMapId;
-    private JSONObject currentMapDataJson;
+    private MapDocument currentMap;
     private GridOverlayVisualizer gridVisualizer; 
 
-    public TileGridToolbar(Editor editor, int initialMapId, JSONObject initialMapDataJson, GridOverlayVisualizer gridVisualizer) {
+    public TileGridToolbar(Editor editor, MapDocument initialMap, GridOverlayVisualizer gridVisualizer) {
         this.editor = editor;
-        this.currentMapId = initialMapId;
-        this.currentMapDataJson = initialMapDataJson; 
+        this.currentMap = initialMap; 
         this.gridVisualizer = gridVisualizer;
 
         // Apply dark theme styling
@@ -41,11 +39,10 @@ public class TileGridToolbar extends JToolBar {
         initComponents();
     }
 
-    public void setCurrentMapData(int mapId, JSONObject mapDataJson) {
-        this.currentMapId = mapId;
-        this.currentMapDataJson = mapDataJson;
+    public void setCurrentMap(MapDocument map) {
+        this.currentMap = map;
         if (editor != null) {
-            editor.setCurrentMapDataJson(mapDataJson);
+            editor.setCurrentMap(map);
         }
     }
 
@@ -54,8 +51,8 @@ public class TileGridToolbar extends JToolBar {
         saveToYmlButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (editor != null && currentMapDataJson != null && currentMapId != 0) { // Check mapId too
-                    boolean success = editor.saveMapDataToYml(currentMapId, currentMapDataJson);
+                if (editor != null && currentMap != null && currentMap.getMapId() != 0) { // Check mapId too
+                    boolean success = editor.saveMap(currentMap);
                     if (success) {
                         showStyledDialog("Map saved to YAML successfully!", "Save Success", JOptionPane.INFORMATION_MESSAGE);
                     } else {
@@ -74,10 +71,10 @@ public class TileGridToolbar extends JToolBar {
         exportToYmlButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (editor != null && currentMapDataJson != null && currentMapId != 0) {
-                    boolean success = editor.exportMapDataToYml(currentMapId, currentMapDataJson);
+                if (editor != null && currentMap != null && currentMap.getMapId() != 0) {
+                    boolean success = editor.exportMap(currentMap);
                     if (success) {
-                        showStyledDialog("Map exported to " + currentMapId + "_export_test.yml successfully!", "Export Success", JOptionPane.INFORMATION_MESSAGE);
+                        showStyledDialog("Map exported to " + currentMap.getMapId() + "_export_test.yml successfully!", "Export Success", JOptionPane.INFORMATION_MESSAGE);
                     } else {
                         showStyledDialog("Failed to export map to YAML. Check console for details.", "Export Error", JOptionPane.ERROR_MESSAGE);
                     }
@@ -105,8 +102,8 @@ public class TileGridToolbar extends JToolBar {
         exportRawJsonButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (editor != null && currentMapDataJson != null) {
-                    boolean success = editor.exportRawJson(currentMapDataJson);
+                if (editor != null && currentMap != null) {
+                    boolean success = editor.exportRawJson(currentMap.toJSONObject());
                     if (success) {
                         showStyledDialog("Raw JSON exported to debug_raw_json.json successfully!", "Export Success", JOptionPane.INFORMATION_MESSAGE);
                     } else {
@@ -4,17 +4,53 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 
+import psdk.EventEditor.model.TileGrid;
+import psdk.EventEditor.utils.CompatibleImages;
+
 public class TileVisualizer extends JPanel {
 
-    private int[][][] tileGrid = null;
-    private BufferedImage tilesetImage = null;
+    private TileGrid tileGrid = null;
+    private TilesetCache.Tileset tileset = null;
     private int tileSize = 32;
 
-    private BufferedImage[] tileCache;
+    // The map is pre-rendered in square chunks of CHUNK_TILES tiles, so panning only blits a few images.
+    // Only the most recently drawn chunks are kept, a 500x500 map would otherwise need about 1 GB.
+    private static final int CHUNK_TILES = 16;
+    private static final int MAX_CACHED_CHUNKS = 64;
+    private static final Color AUTOTILE_COLOR = new Color(0, 0, 150);
+
+    private final Map<Integer, BufferedImage> chunkCache = new LinkedHashMap<Integer, BufferedImage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) {
+            return size() > MAX_CACHED_CHUNKS;
+        }
+    };
+    private int chunkColumns = 0;
+    private int chunkRows = 0;
+
+    // Opt-in (-Dpsdk.editor.volatileChunks=true): keeps a VRAM copy of each chunk as a VolatileImage,
+    // for pipelines where managed images are not promoted to accelerated surfaces.
+    private static final boolean USE_VOLATILE_CHUNKS = Boolean.getBoolean("psdk.editor.volatileChunks");
+
+    private final Map<Integer, VolatileImage> volatileChunks = new LinkedHashMap<Integer, VolatileImage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, VolatileImage> eldest) {
+            if (size() > MAX_CACHED_CHUNKS) {
+                eldest.getValue().flush();
+                return true;
+            }
+            return false;
+        }
+    };
 
     public int scrollX = 0;
     public int scrollY = 0;
@@ -24,29 +60,15 @@ public class TileVisualizer extends JPanel {
         setOpaque(true); 
     }
 
-    public void updateGrid(int[][][] newGrid, BufferedImage newTileset) {
-        boolean tilesetChanged = (this.tilesetImage != newTileset);
-
+    public void updateGrid(TileGrid newGrid, TilesetCache.Tileset newTileset) {
         this.tileGrid = newGrid;
-        this.tilesetImage = newTileset;
+        this.tileset = newTileset;
 
-        if (tilesetChanged && tilesetImage != null) {
-            int tilesetCols = tilesetImage.getWidth() / tileSize;
-            int tilesetRows = tilesetImage.getHeight() / tileSize;
-            int totalTilesInTileset = tilesetCols * tilesetRows;
+        invalidateAllChunks();
 
-            tileCache = new BufferedImage[totalTilesInTileset]; 
-
-            for (int i = 0; i < totalTilesInTileset; i++) {
-                int tileX = i % tilesetCols;
-                int tileY = i / tilesetCols;
-                tileCache[i] = tilesetImage.getSubimage(tileX * tileSize, tileY * tileSize, tileSize, tileSize);
-            }
-        }
-
-        if (tileGrid != null && tileGrid.length > 0 && tileGrid[0].length > 0) {
-            int mapWidthPixels = tileGrid.length * tileSize;
-            int mapHeightPixels = tileGrid[0].length * tileSize;
+        if (tileGrid != null) {
+            int mapWidthPixels = tileGrid.getWidth() * tileSize;
+            int mapHeightPixels = tileGrid.getHeight() * tileSize;
             setPreferredSize(new Dimension(mapWidthPixels, mapHeightPixels));
         } else {
             setPreferredSize(new Dimension(0, 0));
@@ -68,53 +90,156 @@ public class TileVisualizer extends JPanel {
         return tileSize;
     }
 
+    /**
+     * Marks the chunks covering the given tile rectangle for re-rendering, to be called
+     * after tiles of the current grid have been edited.
+     */
+    public void invalidateTiles(int tileX, int tileY, int widthInTiles, int heightInTiles) {
+        if (tileGrid == null) {
+            return;
+        }
+        int firstChunkX = Math.max(0, tileX / CHUNK_TILES);
+        int firstChunkY = Math.max(0, tileY / CHUNK_TILES);
+        int lastChunkX = Math.min(chunkColumns - 1, (tileX + widthInTiles - 1) / CHUNK_TILES);
+        int lastChunkY = Math.min(chunkRows - 1, (tileY + heightInTiles - 1) / CHUNK_TILES);
+
+        for (int chunkY = firstChunkY; chunkY <= lastChunkY; chunkY++) {
+            for (int chunkX = firstChunkX; chunkX <= lastChunkX; chunkX++) {
+                chunkCache.remove(chunkY * chunkColumns + chunkX);
+                VolatileImage volatileChunk = volatileChunks.remove(chunkY * chunkColumns + chunkX);
+                if (volatileChunk != null) {
+                    volatileChunk.flush();
+                }
+            }
+        }
+        repaint();
+    }
+
+    private void invalidateAllChunks() {
+        chunkCache.clear();
+        for (VolatileImage volatileChunk : volatileChunks.values()) {
+            volatileChunk.flush();
+        }
+        volatileChunks.clear();
+        if (tileGrid != null) {
+            chunkColumns = (tileGrid.getWidth() + CHUNK_TILES - 1) / CHUNK_TILES;
+            chunkRows = (tileGrid.getHeight() + CHUNK_TILES - 1) / CHUNK_TILES;
+        } else {
+            chunkColumns = 0;
+            chunkRows = 0;
+        }
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
 
-        if (tileGrid == null || tilesetImage == null) {
+        if (tileGrid == null || tileset == null) {
             g.setColor(Color.WHITE);
             g.drawString("Pas de map chargée", 10, 20);
             return;
         }
 
-        Graphics2D g2d = (Graphics2D) g;
-
-        int mapGridWidth = tileGrid.length;
-        int mapGridHeight = tileGrid[0].length;
-        
-        // Calculate the range of tiles to draw taking into account scrolling        
-        int startTileX = Math.max(0, -scrollX / tileSize);
-        int endTileX = Math.min(mapGridWidth, (-scrollX + getWidth() + tileSize - 1) / tileSize);
-        
-        int startTileY = Math.max(0, -scrollY / tileSize);
-        int endTileY = Math.min(mapGridHeight, (-scrollY + getHeight() + tileSize - 1) / tileSize);
-
-        for (int z = 0; z < tileGrid[0][0].length; z++) {
-            for (int y = startTileY; y < endTileY; y++) {
-                for (int x = startTileX; x < endTileX; x++) {
-                    int tileValue = tileGrid[x][y][z];
-
-                    if (tileValue >= 384) { 
-                        int tileIndexInCache = tileValue - 384; 
-                        
-                        if (tileIndexInCache >= 0 && tileIndexInCache < tileCache.length) {
-                            BufferedImage tile = tileCache[tileIndexInCache];
-                            
-                            int destX = x * tileSize + scrollX;
-                            int destY = y * tileSize + scrollY;
-
-                            g2d.drawImage(tile, destX, destY, tileSize, tileSize, null);
-                        } else {
-                            g2d.setColor(Color.MAGENTA);
-                            g2d.fillRect(x * tileSize + scrollX, y * tileSize + scrollY, tileSize, tileSize);
+        int chunkPixels = CHUNK_TILES * tileSize;
+
+        // Calculate the range of chunks to draw taking into account scrolling
+        int startChunkX = Math.max(0, -scrollX / chunkPixels);
+        int endChunkX = Math.min(chunkColumns, (-scrollX + getWidth() + chunkPixels - 1) / chunkPixels);
+
+        int startChunkY = Math.max(0, -scrollY / chunkPixels);
+        int endChunkY = Math.min(chunkRows, (-scrollY + getHeight() + chunkPixels - 1) / chunkPixels);
+
+        for (int chunkY = startChunkY; chunkY < endChunkY; chunkY++) {
+            for (int chunkX = startChunkX; chunkX < endChunkX; chunkX++) {
+                drawChunk(g, chunkX, chunkY, chunkX * chunkPixels + scrollX, chunkY * chunkPixels + scrollY);
+            }
+        }
+    }
+
+    private void drawChunk(Graphics g, int chunkX, int chunkY, int destX, int destY) {
+        BufferedImage chunk = getChunk(chunkX, chunkY);
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        if (!USE_VOLATILE_CHUNKS || configuration == null) {
+            g.drawImage(chunk, destX, destY, null);
+            return;
+        }
+
+        int key = chunkY * chunkColumns + chunkX;
+        VolatileImage volatileChunk = volatileChunks.get(key);
+        do {
+            int status = volatileChunk != null ? volatileChunk.validate(configuration) : VolatileImage.IMAGE_INCOMPATIBLE;
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (volatileChunk != null) {
+                    volatileChunk.flush();
+                }
+                volatileChunk = configuration.createCompatibleVolatileImage(chunk.getWidth(), chunk.getHeight());
+                volatileChunks.put(key, volatileChunk);
+                status = VolatileImage.IMAGE_RESTORED;
+            }
+            if (status == VolatileImage.IMAGE_RESTORED) {
+                Graphics2D volatileGraphics = volatileChunk.createGraphics();
+                try {
+                    volatileGraphics.drawImage(chunk, 0, 0, null);
+                } finally {
+                    volatileGraphics.dispose();
+                }
+            }
+            g.drawImage(volatileChunk, destX, destY, null);
+        } while (volatileChunk.contentsLost());
+    }
+
+    private BufferedImage getChunk(int chunkX, int chunkY) {
+        int key = chunkY * chunkColumns + chunkX;
+        BufferedImage chunk = chunkCache.get(key);
+        if (chunk == null) {
+            chunk = renderChunk(chunkX, chunkY);
+            chunkCache.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Composites all layers of one chunk, over the panel background, into an opaque image.
+     */
+    private BufferedImage renderChunk(int chunkX, int chunkY) {
+        int startTileX = chunkX * CHUNK_TILES;
+        int startTileY = chunkY * CHUNK_TILES;
+        int endTileX = Math.min(tileGrid.getWidth(), startTileX + CHUNK_TILES);
+        int endTileY = Math.min(tileGrid.getHeight(), startTileY + CHUNK_TILES);
+
+        BufferedImage chunk = CompatibleImages.createCompatibleImage((endTileX - startTileX) * tileSize,
+            (endTileY - startTileY) * tileSize, Transparency.OPAQUE);
+        Graphics2D g2d = chunk.createGraphics();
+        try {
+            g2d.setColor(getBackground());
+            g2d.fillRect(0, 0, chunk.getWidth(), chunk.getHeight());
+
+            for (int z = 0; z < tileGrid.getLayers(); z++) {
+                for (int y = startTileY; y < endTileY; y++) {
+                    for (int x = startTileX; x < endTileX; x++) {
+                        int tileValue = tileGrid.getTile(x, y, z);
+                        int destX = (x - startTileX) * tileSize;
+                        int destY = (y - startTileY) * tileSize;
+
+                        if (tileValue >= 384) { 
+                            int tileIndexInCache = tileValue - 384; 
+
+                            if (tileIndexInCache < tileset.getTileCount()) {
+                                g2d.drawImage(tileset.getTile(tileIndexInCache), destX, destY, tileSize, tileSize, null);
+                            } else {
+                                g2d.setColor(Color.MAGENTA);
+                                g2d.fillRect(destX, destY, tileSize, tileSize);
+                            }
+                        } else if (tileValue != 0) {
+                            g2d.setColor(AUTOTILE_COLOR);
+                            g2d.fillRect(destX, destY, tileSize, tileSize);
                         }
-                    } else if (tileValue != 0) {
-                        g2d.setColor(new Color(0, 0, 150));
-                        g2d.fillRect(x * tileSize + scrollX, y * tileSize + scrollY, tileSize, tileSize);
                     }
                 }
             }
+        } finally {
+            g2d.dispose();
         }
+        return chunk;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package psdk.EventEditor.views;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import psdk.EventEditor.utils.CompatibleImages;
+
+/**
+ * Process wide cache of decoded tilesets, keyed by file, sliced once into tiles.
+ * Entries are evicted least recently used first once their pixels exceed MAX_CACHE_BYTES,
+ * and reloaded when the PNG changes on disk.
+ */
+public final class TilesetCache {
+
+    private static final long MAX_CACHE_BYTES = 128L * 1024 * 1024;
+
+    private static final Map<String, Tileset> CACHE = new LinkedHashMap<>(8, 0.75f, true);
+    private static long cachedBytes = 0;
+
+    private TilesetCache() {
+    }
+
+    /**
+     * Decoded tileset image and its tiles, the tiles being views over the image.
+     */
+    public static final class Tileset {
+        private final BufferedImage image;
+        private final BufferedImage[] tiles;
+        private final int tileSize;
+        private final long lastModified;
+        private final long byteSize;
+
+        private Tileset(BufferedImage image, int tileSize, long lastModified) {
+            this.image = image;
+            this.tileSize = tileSize;
+            this.lastModified = lastModified;
+            this.byteSize = (long) image.getWidth() * image.getHeight() * 4;
+
+            int columns = image.getWidth() / tileSize;
+            int rows = image.getHeight() / tileSize;
+            this.tiles = new BufferedImage[columns * rows];
+            for (int i = 0; i < tiles.length; i++) {
+                tiles[i] = image.getSubimage((i % columns) * tileSize, (i / columns) * tileSize, tileSize, tileSize);
+            }
+        }
+
+        public BufferedImage getImage() {
+            return image;
+        }
+
+        public int getTileSize() {
+            return tileSize;
+        }
+
+        public int getTileCount() {
+            return tiles.length;
+        }
+
+        public BufferedImage getTile(int index) {
+            return tiles[index];
+        }
+    }
+
+    /**
+     * Returns Graphics/Tilesets/_&lt;id&gt;.png of the project, decoding it only when it is not
+     * cached yet or has changed on disk. Returns null when the file does not exist.
+     */
+    public static Tileset get(String projectRootPath, int tilesetId, int tileSize) throws IOException {
+        File tilesetFile = new File(projectRootPath,
+            "Graphics" + File.separator + "Tilesets" + File.separator + "_" + tilesetId + ".png");
+        if (!tilesetFile.exists()) {
+            System.err.println("[TilesetCache] Tileset file not found: " + tilesetFile.getAbsolutePath());
+            return null;
+        }
+
+        String key = tilesetFile.getAbsolutePath() + "@" + tileSize;
+        long lastModified = tilesetFile.lastModified();
+        synchronized (CACHE) {
+            Tileset cached = CACHE.get(key);
+            if (cached != null && cached.lastModified == lastModified) {
+                return cached;
+            }
+        }
+
+        // Decoded outside of the lock so another tileset can be served meanwhile.
+        BufferedImage image = CompatibleImages.read(tilesetFile);
+        if (image == null) {
+            throw new IOException("Unsupported image format: " + tilesetFile.getAbsolutePath());
+        }
+        Tileset tileset = new Tileset(image, tileSize, lastModified);
+        System.out.println("[TilesetCache] Tileset " + tilesetId + " decoded (" + tileset.getTileCount() + " tiles)");
+
+        synchronized (CACHE) {
+            Tileset previous = CACHE.put(key, tileset);
+            if (previous != null) {
+                cachedBytes -= previous.byteSize;
+            }
+            cachedBytes += tileset.byteSize;
+            evictIfNeeded(tileset);
+        }
+        return tileset;
+    }
+
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    private static void evictIfNeeded(Tileset keep) {
+        Iterator<Tileset> iterator = CACHE.values().iterator();
+        while (cachedBytes > MAX_CACHE_BYTES && iterator.hasNext()) {
+            Tileset eldest = iterator.next();
+            if (eldest != keep) {
+                iterator.remove();
+                cachedBytes -= eldest.byteSize;
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package psdk.EventEditor.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import libs.json.JSONArray;
+import libs.json.JSONObject;
+
+class CommandParametersTest {
+
+    @Test
+    void compactFormGivesBackCommonCommandParameters() {
+        JSONArray[] parameters = {
+            // 101 Show Text
+            new JSONArray().put("Ligne de dialogue, avec un peu de texte."),
+            // 102 Show Choices
+            new JSONArray().put(new JSONArray().put("Oui").put("Non")).put(2),
+            // 111 Conditional Branch
+            new JSONArray().put(0).put(12).put(0),
+            // 122 Control Variables
+            new JSONArray().put(1).put(1).put(0).put(0).put(5),
+            // 201 Transfer Player
+            new JSONArray().put(0).put(3).put(10).put(7).put(2).put(0),
+            // 209 Set Move Route
+            new JSONArray().put(-1).put(moveRoute(moveCommand(1), moveCommand(16), moveCommand(0))),
+            // 250 Play SE
+            new JSONArray().put(audioFile("020-teleport01", 80)),
+            // 509 Movement Command
+            new JSONArray().put(moveCommand(3)),
+        };
+
+        for (JSONArray array : parameters) {
+            CommandParameters compact = CommandParameters.compact(array);
+            assertTrue(compact.toJSONArray().similar(array), array.toString());
+            assertEquals(array.length(), compact.length());
+        }
+    }
+
+    @Test
+    void valuesWithoutCompactFormAreKeptAsIs() {
+        JSONObject audioWithExtraKey = audioFile("battle1", 100).put("extra", 1);
+        JSONObject binary = new JSONObject().put(MapYmlLoader.BINARY_CONTENT_KEY, "BAgiCGFiYw==");
+        JSONObject moveWithFloat = new JSONObject()
+            .put("code", 15)
+            .put("parameters", new JSONArray().put(1.5));
+        JSONArray array = new JSONArray()
+            .put(1.0)
+            .put(new BigDecimal("0.5"))
+            .put(new JSONArray().put(1).put(new JSONArray().put(2).put("deux")))
+            .put(audioWithExtraKey)
+            .put(binary)
+            .put(moveWithFloat)
+            .put(JSONObject.NULL)
+            .put(true);
+
+        CommandParameters compact = CommandParameters.compact(array);
+        JSONArray restored = compact.toJSONArray();
+
+        assertTrue(restored.similar(array), restored.toString());
+        // similar() compares numbers by value, 1.0 must not come back as an Integer
+        assertEquals(Double.class, restored.get(0).getClass());
+        assertEquals(BigDecimal.class, restored.get(1).getClass());
+        assertEquals(JSONObject.NULL, restored.get(6));
+        assertEquals(Boolean.TRUE, restored.get(7));
+    }
+
+    @Test
+    void pageCommandsRoundTripThroughJson() {
+        List<EventCommand> commands = new ArrayList<>();
+        commands.add(new EventCommand(101, "0", new JSONArray().put("Bonjour")));
+        commands.add(new EventCommand(209, "0",
+            CommandParameters.compact(new JSONArray().put(0).put(moveRoute(moveCommand(2), moveCommand(0))))));
+        commands.add(new EventCommand(509, "0", new JSONArray().put(moveCommand(2))));
+        commands.add(new EventCommand(250, "1", CommandParameters.compact(new JSONArray().put(audioFile("", 80)))));
+        commands.add(new EventCommand(355, "1", new JSONArray().put("$game_map.need_refresh = true").put(0.25)));
+        commands.add(new EventCommand(0, "0", new JSONArray()));
+        EventPage page = new EventPage();
+        page.setCommands(commands);
+
+        JSONArray json = page.toCommandsJsonArray();
+        EventPage reloaded = new EventPage();
+        reloaded.loadCommandsFromJsonArray(json);
+
+        assertEquals(commands.size(), reloaded.getCommands().size());
+        assertTrue(reloaded.toCommandsJsonArray().similar(json), reloaded.toCommandsJsonArray().toString());
+    }
+
+    private static JSONObject moveCommand(int code) {
+        return new JSONObject().put("code", code).put("parameters", new JSONArray());
+    }
+
+    private static JSONObject moveRoute(JSONObject... list) {
+        JSONArray listJson = new JSONArray();
+        for (JSONObject command : list) {
+            listJson.put(command);
+        }
+        return new JSONObject().put("repeat", false).put("skippable", true).put("list", listJson);
+    }
+
+    private static JSONObject audioFile(String name, int volume) {
+        return new JSONObject().put("name", name).put("volume", volume).put("pitch", 100);
+    }
+}
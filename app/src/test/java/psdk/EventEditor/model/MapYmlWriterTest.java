@@ -0,0 +1,77 @@
+package psdk.EventEditor.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import libs.json.JSONObject;
+
+class MapYmlWriterTest {
+
+    // Sample export of map 89, its first event is named "§ kaeru" and stored as !binary
+    private static final String SAMPLE_EXPORT = "resultat_89_export_test.yml";
+    private static final String BINARY_NAME_LINES = "    name: !binary |-\n      wqcga2FlcnU=\n";
+
+    @Test
+    void binaryEventNameIsWrittenBackAsBinary() throws IOException {
+        MapDocument document = readDocument(sampleExport());
+
+        Event event = document.getEvents().get(0);
+        assertEquals("§ kaeru", event.getName());
+        assertEquals("wqcga2FlcnU=", event.getBinaryName());
+
+        String written = write(document);
+        assertTrue(written.contains(BINARY_NAME_LINES), "binary name not written back as !binary");
+    }
+
+    @Test
+    void binaryEventNameSurvivesSnapshot() throws IOException {
+        Path projectRoot = Files.createTempDirectory("snapshot-test");
+        File ymlFile = projectRoot.resolve(SAMPLE_EXPORT).toFile();
+        Files.copy(sampleExport().toPath(), ymlFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        MapSnapshotStore store = new MapSnapshotStore(projectRoot.toString());
+        assertTrue(store.store(readDocument(ymlFile)));
+        MapDocument restored = store.load(ymlFile, 89);
+        assertNotNull(restored);
+
+        assertEquals("wqcga2FlcnU=", restored.getEvents().get(0).getBinaryName());
+        assertTrue(write(restored).contains(BINARY_NAME_LINES), "binary name lost by the snapshot");
+    }
+
+    private static MapDocument readDocument(File ymlFile) throws IOException {
+        List<Event> events = new ArrayList<>();
+        TileGrid[] grid = new TileGrid[1];
+        JSONObject header = MapYmlStreamReader.readMap(ymlFile, events::add, tileGrid -> grid[0] = tileGrid);
+        return new MapDocument(89, ymlFile, ymlFile.lastModified(), header, grid[0], events);
+    }
+
+    private static String write(MapDocument document) throws IOException {
+        StringWriter writer = new StringWriter();
+        MapYmlWriter.writeMap(document, writer);
+        return writer.toString();
+    }
+
+    /**
+     * The sample export is at the root of the repository, tests run from the app folder.
+     */
+    private static File sampleExport() {
+        File file = new File(SAMPLE_EXPORT);
+        if (!file.isFile()) {
+            file = new File("..", SAMPLE_EXPORT);
+        }
+        assertTrue(file.isFile(), "missing sample export " + SAMPLE_EXPORT);
+        return file;
+    }
+}